@@ -0,0 +1,91 @@
+package org.ois.plugin.benchmarks;
+
+import org.ois.core.utils.io.FileUtils;
+import org.ois.plugin.tools.DirectorySynchronizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures staging the simulation assets tree into the runner resources directory,
+ * into an empty target (first run / after clean) and into an up-to-date target (repeated runs without changes).
+ * Compares the full copy with the incremental sync of the {@link DirectorySynchronizer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AssetCopyBenchmark {
+
+    @Param({"2000"})
+    public int fileCount;
+    @Param({"50"})
+    public int filesPerDirectory;
+    @Param({"4096"})
+    public int smallFileSize;
+    @Param({"4194304"})
+    public int largeFileSize;
+    @Param({"20"})
+    public int largeFileRatio;
+    /** The I/O workers of the synchronizer, not used by the full copy **/
+    @Param({"1", "4"})
+    public int ioThreads;
+
+    private Path workDir;
+    private Path sourceDir;
+    private Path emptyTargetDir;
+    private Path upToDateTargetDir;
+    private DirectorySynchronizer emptyTargetSynchronizer;
+    private DirectorySynchronizer upToDateTargetSynchronizer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("assetCopyBenchmark");
+        sourceDir = workDir.resolve("assets");
+        SyntheticAssetTree.generate(sourceDir, fileCount, filesPerDirectory, smallFileSize, largeFileSize, largeFileRatio);
+        upToDateTargetDir = workDir.resolve("upToDate");
+        FileUtils.copyDirectoryContent(sourceDir, upToDateTargetDir);
+        upToDateTargetSynchronizer = new DirectorySynchronizer(workDir.resolve("synced"), workDir.resolve("synced.manifest"), DirectorySynchronizer.StagingMode.Copy, ioThreads);
+        upToDateTargetSynchronizer.sync(List.of(sourceDir));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTarget() throws IOException {
+        emptyTargetDir = workDir.resolve("empty");
+        if (emptyTargetDir.toFile().exists()) {
+            FileUtils.deleteDirectoryContent(emptyTargetDir);
+        }
+        Files.createDirectories(emptyTargetDir);
+        Files.deleteIfExists(workDir.resolve("empty.manifest"));
+        emptyTargetSynchronizer = new DirectorySynchronizer(emptyTargetDir, workDir.resolve("empty.manifest"), DirectorySynchronizer.StagingMode.Copy, ioThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FileUtils.deleteDirectoryContent(workDir);
+        workDir.toFile().delete();
+    }
+
+    @Benchmark
+    public void copyToEmptyTarget() throws IOException {
+        FileUtils.copyDirectoryContent(sourceDir, emptyTargetDir);
+    }
+
+    @Benchmark
+    public void copyToUpToDateTarget() throws IOException {
+        FileUtils.copyDirectoryContent(sourceDir, upToDateTargetDir);
+    }
+
+    @Benchmark
+    public DirectorySynchronizer.Result syncToEmptyTarget() throws IOException {
+        return emptyTargetSynchronizer.sync(List.of(sourceDir));
+    }
+
+    @Benchmark
+    public DirectorySynchronizer.Result syncToUpToDateTarget() throws IOException {
+        return upToDateTargetSynchronizer.sync(List.of(sourceDir));
+    }
+}
@@ -0,0 +1,121 @@
+package org.ois.plugin.benchmarks;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.ois.core.utils.io.FileUtils;
+import org.ois.plugin.tools.ClassFileReader;
+import org.ois.plugin.tools.ClassHeader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Compares the stream based class header reading with the reusable buffers reader ({@link ClassFileReader}),
+ * over a synthetic classpath of jars and a synthetic project classes directory.
+ * Also compares the memory of the header only records with full ASM class trees of the project classes,
+ * run with the GC profiler ('-prof gc') to compare the allocation of each (the benchmarks keep all the read classes alive until they return).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClassHeaderReadBenchmark {
+
+    @Param({"50000"})
+    public int classpathClassCount;
+    @Param({"50"})
+    public int jarCount;
+    @Param({"5000"})
+    public int projectClassCount;
+    @Param({"20"})
+    public int methodCount;
+
+    private Path workDir;
+    private List<Path> jars;
+    private List<Path> classFiles;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("classHeaderReadBenchmark");
+        jars = SyntheticClasspath.generateJars(workDir.resolve("libs"), jarCount, classpathClassCount, methodCount);
+        classFiles = SyntheticClasspath.generateClassesDirectory(workDir.resolve("classes").resolve("java").resolve("main"), projectClassCount, methodCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FileUtils.deleteDirectoryContent(workDir);
+        workDir.toFile().delete();
+    }
+
+    @Benchmark
+    public void streamJars(Blackhole blackhole) throws IOException {
+        for (Path jarPath : jars) {
+            try (JarFile jar = new JarFile(jarPath.toFile())) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        blackhole.consume(ClassHeader.read(in));
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void bufferedJars(Blackhole blackhole) throws IOException {
+        for (Path jarPath : jars) {
+            try (JarFile jar = new JarFile(jarPath.toFile())) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    blackhole.consume(ClassFileReader.read(jar, entries.nextElement()));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void streamClassFiles(Blackhole blackhole) throws IOException {
+        for (Path classFile : classFiles) {
+            try (InputStream in = Files.newInputStream(classFile)) {
+                blackhole.consume(ClassHeader.read(in));
+            }
+        }
+    }
+
+    @Benchmark
+    public void bufferedClassFiles(Blackhole blackhole) throws IOException {
+        for (Path classFile : classFiles) {
+            blackhole.consume(ClassFileReader.read(classFile));
+        }
+    }
+
+    @Benchmark
+    public List<ClassNode> classNodes() throws IOException {
+        List<ClassNode> classNodes = new ArrayList<>(classFiles.size());
+        for (Path classFile : classFiles) {
+            ClassNode classNode = new ClassNode();
+            new ClassReader(Files.readAllBytes(classFile)).accept(classNode, 0);
+            classNodes.add(classNode);
+        }
+        return classNodes;
+    }
+
+    @Benchmark
+    public List<ClassHeader> classHeaders() throws IOException {
+        List<ClassHeader> classHeaders = new ArrayList<>(classFiles.size());
+        for (Path classFile : classFiles) {
+            classHeaders.add(ClassHeader.read(Files.readAllBytes(classFile)));
+        }
+        return classHeaders;
+    }
+}
@@ -0,0 +1,74 @@
+package org.ois.plugin.benchmarks;
+
+import org.ois.core.utils.io.FileUtils;
+import org.ois.plugin.tools.ClassImplementationFinder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the project implementations of a target class over a synthetic classpath,
+ * with a cold (no index) and a warm (persisted index) classpath index, for the full and the lazy scan modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClassImplementationFinderBenchmark {
+    private static final String TARGET_CLASS = "java.io.Serializable";
+
+    @Param({"50000"})
+    public int classpathClassCount;
+    @Param({"50"})
+    public int jarCount;
+    @Param({"500"})
+    public int projectClassCount;
+    @Param({"true", "false"})
+    public boolean lazyScan;
+
+    private Path buildDir;
+    private List<File> classpath;
+    private Path indexFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        buildDir = Files.createTempDirectory("classImplementationFinderBenchmark");
+        classpath = new ArrayList<>();
+        for (Path jar : SyntheticClasspath.generateJars(buildDir.resolve("libs"), jarCount, classpathClassCount, 5)) {
+            classpath.add(jar.toFile());
+        }
+        // Project classes extend the deepest class of each jar, so their whole hierarchy needs to be resolved
+        List<String> superClasses = new ArrayList<>();
+        int classesPerJar = Math.max(1, classpathClassCount / jarCount);
+        for (int i = 0; i < jarCount; i++) {
+            superClasses.add(SyntheticClasspath.getJarClassName(i, classesPerJar - 1));
+        }
+        SyntheticClasspath.generateClassesDirectory(buildDir.resolve("classes").resolve("java").resolve("main"), projectClassCount, 5, superClasses);
+        indexFile = buildDir.resolve("cache").resolve("classpath.index");
+        // Warm the index for the warm benchmark
+        ClassImplementationFinder.find(buildDir, classpath, indexFile, TARGET_CLASS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FileUtils.deleteDirectoryContent(buildDir);
+        buildDir.toFile().delete();
+    }
+
+    @Benchmark
+    public void findWithoutIndex(Blackhole blackhole) {
+        blackhole.consume(ClassImplementationFinder.findAll(buildDir, classpath, null, Set.of(TARGET_CLASS), Runtime.getRuntime().availableProcessors(), lazyScan));
+    }
+
+    @Benchmark
+    public void findWithIndex(Blackhole blackhole) {
+        blackhole.consume(ClassImplementationFinder.findAll(buildDir, classpath, indexFile, Set.of(TARGET_CLASS), Runtime.getRuntime().availableProcessors(), lazyScan));
+    }
+}
@@ -0,0 +1,44 @@
+package org.ois.plugin.benchmarks;
+
+import org.ois.plugin.tools.FileContentReplacer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures injecting attributes into generated runner config files, with a growing number of attributes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileContentReplacerBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int attributeCount;
+    @Param({"5"})
+    public int fillerLinesPerAttribute;
+
+    private String javaConfig;
+    private Map<String, Object> javaAttributes;
+    private String xmlStrings;
+    private Map<String, Object> xmlAttributes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        javaConfig = SyntheticConfigFiles.generateJavaConfig(attributeCount, fillerLinesPerAttribute);
+        javaAttributes = SyntheticConfigFiles.generateJavaAttributes(attributeCount);
+        xmlStrings = SyntheticConfigFiles.generateXmlStrings(attributeCount);
+        xmlAttributes = SyntheticConfigFiles.generateXmlAttributes(attributeCount);
+    }
+
+    @Benchmark
+    public String replaceJavaStaticFinalVals() {
+        return FileContentReplacer.Java.replaceJavaStaticFinalVals(javaConfig, javaAttributes);
+    }
+
+    @Benchmark
+    public String replaceXmlAttributes() {
+        return FileContentReplacer.Xml.replaceXmlAttributes(xmlStrings, xmlAttributes);
+    }
+}
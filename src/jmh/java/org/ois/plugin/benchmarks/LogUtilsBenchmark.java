@@ -0,0 +1,55 @@
+package org.ois.plugin.benchmarks;
+
+import org.ois.plugin.utils.LogUtils;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures redirecting the output of a nested build (as written by the Tooling API) to the plugin log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LogUtilsBenchmark {
+
+    @Param({"1000"})
+    public int lineCount;
+    @Param({"120"})
+    public int lineLength;
+    @Param({"8192"})
+    public int chunkSize;
+
+    private byte[] output;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            content.append("> Task :core:compileJava ").append("x".repeat(Math.max(0, lineLength - 25))).append('\n');
+        }
+        output = content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void redirectOutToLogInfo() throws IOException {
+        redirect(LogUtils.getRedirectOutToLogInfo(NOPLogger.NOP_LOGGER));
+    }
+
+    @Benchmark
+    public void redirectOutToLogErr() throws IOException {
+        redirect(LogUtils.getRedirectOutToLogErr(NOPLogger.NOP_LOGGER));
+    }
+
+    private void redirect(OutputStream out) throws IOException {
+        // The output arrives in chunks, like a buffered process stream
+        for (int offset = 0; offset < output.length; offset += chunkSize) {
+            out.write(output, offset, Math.min(chunkSize, output.length - offset));
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,41 @@
+package org.ois.plugin.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates a synthetic simulation assets tree: nested directories with files of mixed sizes (small configs and large textures/audio).
+ */
+public class SyntheticAssetTree {
+
+    /**
+     * Generate an assets tree
+     * @param assetsDir - the directory to generate the assets in
+     * @param fileCount - the number of files to generate
+     * @param filesPerDirectory - the number of files in each directory
+     * @param smallFileSize - the size (bytes) of small files
+     * @param largeFileSize - the size (bytes) of large files
+     * @param largeFileRatio - every 'largeFileRatio' file is a large file, 0 for no large files
+     * @return the total size (bytes) of the generated files
+     * @throws IOException - in case of error when writing the files
+     */
+    public static long generate(Path assetsDir, int fileCount, int filesPerDirectory, int smallFileSize, int largeFileSize, int largeFileRatio) throws IOException {
+        Random random = new Random(fileCount);
+        byte[] small = new byte[smallFileSize];
+        byte[] large = new byte[largeFileSize];
+        random.nextBytes(small);
+        random.nextBytes(large);
+        long totalSize = 0;
+        for (int i = 0; i < fileCount; i++) {
+            Path dir = assetsDir.resolve("group" + (i / (filesPerDirectory * 10))).resolve("dir" + (i / filesPerDirectory));
+            Files.createDirectories(dir);
+            boolean isLarge = largeFileRatio > 0 && i % largeFileRatio == 0;
+            byte[] content = isLarge ? large : small;
+            Files.write(dir.resolve("asset" + i + (isLarge ? ".png" : ".json")), content);
+            totalSize += content.length;
+        }
+        return totalSize;
+    }
+}
@@ -0,0 +1,119 @@
+package org.ois.plugin.benchmarks;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Generates synthetic compiled classes, as project class directories and classpath jars, for the benchmarks.
+ */
+public class SyntheticClasspath {
+
+    /**
+     * Generate class files in a classes directory (same layout as 'build/classes/java/main')
+     * @param classesDir - the directory to generate the classes in
+     * @param classCount - the number of classes to generate
+     * @param methodCount - the number of methods in each class
+     * @return the generated class files
+     * @throws IOException - in case of error when writing the files
+     */
+    public static List<Path> generateClassesDirectory(Path classesDir, int classCount, int methodCount) throws IOException {
+        return generateClassesDirectory(classesDir, classCount, methodCount, List.of());
+    }
+
+    /**
+     * Generate class files in a classes directory (same layout as 'build/classes/java/main'), extending given classpath classes
+     * @param classesDir - the directory to generate the classes in
+     * @param classCount - the number of classes to generate
+     * @param methodCount - the number of methods in each class
+     * @param superClasses - internal names of classes to extend (used in rotation), if empty the classes extend each other
+     * @return the generated class files
+     * @throws IOException - in case of error when writing the files
+     */
+    public static List<Path> generateClassesDirectory(Path classesDir, int classCount, int methodCount, List<String> superClasses) throws IOException {
+        List<Path> classFiles = new ArrayList<>(classCount);
+        for (int i = 0; i < classCount; i++) {
+            String name = getClassName("project", i);
+            String superName;
+            if (!superClasses.isEmpty()) {
+                superName = superClasses.get(i % superClasses.size());
+            } else {
+                superName = i == 0 ? "java/lang/Object" : getClassName("project", i - 1);
+            }
+            Path classFile = classesDir.resolve(name + ".class");
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, generateClass(name, superName, methodCount));
+            classFiles.add(classFile);
+        }
+        return classFiles;
+    }
+
+    /**
+     * Generate classpath jars, the classes are divided evenly between the jars
+     * @param targetDir - the directory to generate the jars in
+     * @param jarCount - the number of jars to generate
+     * @param classCount - the total number of classes in all the jars
+     * @param methodCount - the number of methods in each class
+     * @return the generated jars
+     * @throws IOException - in case of error when writing the jars
+     */
+    public static List<Path> generateJars(Path targetDir, int jarCount, int classCount, int methodCount) throws IOException {
+        Files.createDirectories(targetDir);
+        List<Path> jars = new ArrayList<>(jarCount);
+        int classesPerJar = Math.max(1, classCount / jarCount);
+        for (int jarIndex = 0; jarIndex < jarCount; jarIndex++) {
+            Path jarPath = targetDir.resolve("lib" + jarIndex + ".jar");
+            try (OutputStream out = Files.newOutputStream(jarPath); JarOutputStream jar = new JarOutputStream(out)) {
+                for (int i = 0; i < classesPerJar; i++) {
+                    String name = getJarClassName(jarIndex, i);
+                    jar.putNextEntry(new JarEntry(name + ".class"));
+                    jar.write(generateClass(name, i == 0 ? "java/lang/Object" : getJarClassName(jarIndex, i - 1), methodCount));
+                    jar.closeEntry();
+                }
+            }
+            jars.add(jarPath);
+        }
+        return jars;
+    }
+
+    /**
+     * Get the internal name of a class generated by {@link #generateJars(Path, int, int, int)}
+     * @param jarIndex - the index of the jar that contains the class
+     * @param index - the index of the class in the jar
+     * @return the internal ('/' separated) name of the class
+     */
+    public static String getJarClassName(int jarIndex, int index) {
+        return getClassName("lib" + jarIndex, index);
+    }
+
+    private static String getClassName(String packagePrefix, int index) {
+        // Spread the classes over packages like real libraries
+        return "org/ois/benchmark/" + packagePrefix + "/p" + (index / 100) + "/Generated" + index;
+    }
+
+    private static byte[] generateClass(String name, String superName, int methodCount) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC, name, null, superName, new String[]{"java/io/Serializable"});
+        for (int i = 0; i < methodCount; i++) {
+            MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, "(I)I", null, null);
+            method.visitCode();
+            method.visitVarInsn(Opcodes.ILOAD, 1);
+            method.visitLdcInsn(i);
+            method.visitInsn(Opcodes.IADD);
+            method.visitInsn(Opcodes.IRETURN);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,74 @@
+package org.ois.plugin.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generates synthetic runner config files (Java 'SimulationConfig' classes and Android 'strings.xml') and the attributes to inject into them.
+ */
+public class SyntheticConfigFiles {
+
+    /**
+     * Generate a Java config class with static final attributes of different types, with regular code lines between them
+     * @param attributeCount - the number of static final attributes
+     * @param fillerLinesPerAttribute - the number of lines without attributes after each attribute
+     * @return the content of the Java file
+     */
+    public static String generateJavaConfig(int attributeCount, int fillerLinesPerAttribute) {
+        StringBuilder content = new StringBuilder("package org.ois.benchmark;\n\npublic class BenchmarkSimulationConfig {\n");
+        for (int i = 0; i < attributeCount; i++) {
+            switch (i % 3) {
+                case 0 -> content.append("    public static final String ATTRIBUTE_").append(i).append(" = \"value").append(i).append("\";\n");
+                case 1 -> content.append("    public static final int ATTRIBUTE_").append(i).append(" = ").append(i).append(";\n");
+                default -> content.append("    public static final String[] ATTRIBUTE_").append(i).append(" = new String[] {\"a\", \"b\"};\n");
+            }
+            for (int j = 0; j < fillerLinesPerAttribute; j++) {
+                content.append("    // Some documentation line ").append(j).append(" of attribute ").append(i).append('\n');
+            }
+        }
+        return content.append("}\n").toString();
+    }
+
+    /**
+     * Generate the attributes to inject into a config generated by {@link #generateJavaConfig(int, int)}
+     * @param attributeCount - the number of attributes to generate
+     * @return the attribute names mapped to new values (of the same type as in the file)
+     */
+    public static Map<String, Object> generateJavaAttributes(int attributeCount) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < attributeCount; i++) {
+            switch (i % 3) {
+                case 0 -> attributes.put("ATTRIBUTE_" + i, "new" + i);
+                case 1 -> attributes.put("ATTRIBUTE_" + i, i * 2);
+                default -> attributes.put("ATTRIBUTE_" + i, new String[]{"x", "y", "z"});
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Generate an Android 'strings.xml' resources file
+     * @param stringCount - the number of string elements
+     * @return the content of the XML file
+     */
+    public static String generateXmlStrings(int stringCount) {
+        StringBuilder content = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n<resources>\n");
+        for (int i = 0; i < stringCount; i++) {
+            content.append("    <string name=\"string_").append(i).append("\">value ").append(i).append("</string>\n");
+        }
+        return content.append("</resources>\n").toString();
+    }
+
+    /**
+     * Generate the attributes to inject into a file generated by {@link #generateXmlStrings(int)}
+     * @param stringCount - the number of attributes to generate
+     * @return the string names mapped to new values
+     */
+    public static Map<String, Object> generateXmlAttributes(int stringCount) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < stringCount; i++) {
+            attributes.put("string_" + i, "new value " + i);
+        }
+        return attributes;
+    }
+}
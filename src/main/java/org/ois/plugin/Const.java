@@ -2,6 +2,8 @@ package org.ois.plugin;
 
 import org.ois.core.utils.Version;
 
+import java.util.Set;
+
 /**
  * All the constants used in the plugin
  */
@@ -41,6 +43,10 @@ public class Const {
     public static final String PLUGIN_GROUP_NAME = "ois";
     /** The URL of the runners repository that will be used to run the simulation **/
     public static final String OIS_RUNNERS_GIT_REPO_URL = "https://github.com/attiasas/ois-runners.git";
+    /** The name of the build service that holds the connections to the runners, followed by the path of the project it is registered for **/
+    public static final String RUNNER_CONNECTION_SERVICE_NAME = "oisRunnerConnections";
+    /** The directories of a runner that are not part of the runner sources (git metadata, Gradle caches and build outputs) **/
+    public static final Set<String> RUNNER_EXCLUDED_DIRECTORIES = Set.of(".git", ".gradle", "build");
 
     /**
      * All constants related to tasks
@@ -57,7 +63,19 @@ public class Const {
         /** The 'Prepare Simulation' task name **/
         public static final String PREPARE_SIMULATION_TASK_NAME = "prepareSimulation";
         /** The 'Prepare Simulation' task description **/
-        public static final String PREPARE_SIMULATION_TASK_DESCRIPTION = "Prepare the simulation environment to use the project";
+        public static final String PREPARE_SIMULATION_TASK_DESCRIPTION = "Prepare the simulation environment to use the project, the runner version is resolved once and kept until 'cleanSimulationEnv'";
+        /** The 'Prepare HTML Simulation' task name **/
+        public static final String PREPARE_HTML_SIMULATION_TASK_NAME = "prepareHtml";
+        /** The 'Prepare Desktop Simulation' task name **/
+        public static final String PREPARE_DESKTOP_SIMULATION_TASK_NAME = "prepareDesktop";
+        /** The 'Prepare Android Simulation' task name **/
+        public static final String PREPARE_ANDROID_SIMULATION_TASK_NAME = "prepareAndroid";
+        /** The 'Prepare Platform Simulation' task description, formatted with the platform **/
+        public static final String PREPARE_PLATFORM_SIMULATION_TASK_DESCRIPTION = "Prepare the %s simulation runner with the project configurations";
+        /** The 'Generate Reflection' task name **/
+        public static final String GENERATE_REFLECTION_TASK_NAME = "generateReflection";
+        /** The 'Generate Reflection' task description **/
+        public static final String GENERATE_REFLECTION_TASK_DESCRIPTION = "Generate the list of project classes that are accessible by reflection in the html simulation";
         /** The 'Run HTML Simulation' task name **/
         public static final String RUN_HTML_SIMULATION_TASK_NAME = "runHtml";
         /** The 'Run HTML Simulation' task description **/
@@ -70,6 +88,18 @@ public class Const {
         public static final String RUN_ANDROID_SIMULATION_TASK_NAME = "runAndroid";
         /** The 'Run Android Simulation' task description **/
         public static final String RUN_ANDROID_SIMULATION_TASK_DESCRIPTION = "Run the simulation (In dev mode) in connected android device";
+        /** The 'Export HTML Simulation' task name **/
+        public static final String EXPORT_HTML_SIMULATION_TASK_NAME = "exportHtml";
+        /** The 'Export HTML Simulation' task description **/
+        public static final String EXPORT_HTML_SIMULATION_TASK_DESCRIPTION = "Generate the simulation html production artifacts at './build/ois/distribution/Html'";
+        /** The 'Export Desktop Simulation' task name **/
+        public static final String EXPORT_DESKTOP_SIMULATION_TASK_NAME = "exportDesktop";
+        /** The 'Export Desktop Simulation' task description **/
+        public static final String EXPORT_DESKTOP_SIMULATION_TASK_DESCRIPTION = "Generate the simulation desktop production artifacts at './build/ois/distribution/Desktop'";
+        /** The 'Export Android Simulation' task name **/
+        public static final String EXPORT_ANDROID_SIMULATION_TASK_NAME = "exportAndroid";
+        /** The 'Export Android Simulation' task description **/
+        public static final String EXPORT_ANDROID_SIMULATION_TASK_DESCRIPTION = "Generate the simulation android production artifacts at './build/ois/distribution/Android'";
         /** The 'Distribute Simulation task name **/
         public static final String DISTRIBUTE_SIMULATION_TASK_NAME = "export";
         /** The 'Distribute Simulation task description **/
@@ -3,10 +3,13 @@ package org.ois.plugin;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.ois.core.utils.log.ILogger;
+import org.ois.plugin.tools.DirectorySynchronizer;
 
 import javax.inject.Inject;
 import java.io.File;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * The extension to the plugin, used in the build.gradle file, allows you to configure the plugin actions.
@@ -28,6 +31,10 @@ public class PluginConfiguration {
     private ProjectConfig projectConfig;
     /** OIS Project export configurations **/
     private ExportConfig exportConfig;
+    /** OIS Html reflection scan configurations **/
+    private ReflectionConfig reflectionConfig;
+    /** OIS simulation assets staging configurations **/
+    private AssetsConfig assetsConfig;
 
     /** OIS Runners configurations **/
     public static class RunnerConfig {
@@ -41,6 +48,33 @@ public class PluginConfiguration {
          * Else, it will use the latest version.
          **/
         private String runnerVersion;
+        /**
+         * If exists, the runners are cloned from the provided local bare mirror (or clone) of the runners repository.
+         * Else, the runners are cloned from the official runners repository.
+         **/
+        private String mirror;
+        /**
+         * If exists, the runners are cloned from the provided local git bundle of the runners repository (takes priority over the mirror).
+         * Else, the runners are cloned from the mirror if configured or from the official runners repository.
+         **/
+        private String bundle;
+        /**
+         * If exists, the runners are unpacked from the provided zip archive of the runners project (takes priority over the bundle and the mirror, ignores the runner version).
+         * Else, the runners are cloned from the bundle, the mirror or the official runners repository.
+         **/
+        private String archive;
+        /** If exists, the SHA-256 checksum the runners bundle or archive must match before it is used **/
+        private String sha256;
+        /**
+         * If exists, the JVM arguments of the Gradle daemon that runs the runners builds.
+         * Else, the JVM arguments configured by the runners project ('org.gradle.jvmargs') are used.
+         **/
+        private String[] daemonJvmArgs;
+        /**
+         * If exists and positive, the minutes the Gradle daemon that runs the runners builds stays alive without builds.
+         * Else, the idle timeout configured by the runners project ('org.gradle.daemon.idletimeout') or the Gradle default is used.
+         **/
+        private int daemonIdleTimeout;
 
         public void setRunnerDirectory(String runnerDirectory) {
             this.runnerDirectory = runnerDirectory;
@@ -50,6 +84,30 @@ public class PluginConfiguration {
             this.runnerVersion = runnerVersion;
         }
 
+        public void setMirror(String mirror) {
+            this.mirror = mirror;
+        }
+
+        public void setBundle(String bundle) {
+            this.bundle = bundle;
+        }
+
+        public void setArchive(String archive) {
+            this.archive = archive;
+        }
+
+        public void setSha256(String sha256) {
+            this.sha256 = sha256;
+        }
+
+        public void setDaemonJvmArgs(String... daemonJvmArgs) {
+            this.daemonJvmArgs = daemonJvmArgs;
+        }
+
+        public void setDaemonIdleTimeout(int daemonIdleTimeout) {
+            this.daemonIdleTimeout = daemonIdleTimeout;
+        }
+
         public String getRunnerDirectory() {
             return this.runnerDirectory;
         }
@@ -57,6 +115,30 @@ public class PluginConfiguration {
         public String getRunnerVersion() {
             return this.runnerVersion;
         }
+
+        public String getMirror() {
+            return this.mirror;
+        }
+
+        public String getBundle() {
+            return this.bundle;
+        }
+
+        public String getArchive() {
+            return this.archive;
+        }
+
+        public String getSha256() {
+            return this.sha256;
+        }
+
+        public String[] getDaemonJvmArgs() {
+            return this.daemonJvmArgs;
+        }
+
+        public int getDaemonIdleTimeout() {
+            return this.daemonIdleTimeout;
+        }
     }
 
     /** OIS Project configurations **/
@@ -98,6 +180,67 @@ public class PluginConfiguration {
 
     }
 
+    /** OIS Html reflection scan configurations **/
+    public static class ReflectionConfig {
+        /**
+         * If exists and positive, it will be used as the maximum number of classpath jars scanned concurrently when generating the Html reflection items.
+         * Else, a worker for each available processor will be used.
+         **/
+        private int scanThreads;
+        /**
+         * If exists and false, all the classes in the classpath jars will be loaded when generating the Html reflection items.
+         * Else, only the classpath classes that are needed to resolve the project classes hierarchy will be loaded.
+         **/
+        private Boolean lazyScan;
+
+        public void setScanThreads(int scanThreads) {
+            this.scanThreads = scanThreads;
+        }
+
+        public void setLazyScan(Boolean lazyScan) {
+            this.lazyScan = lazyScan;
+        }
+
+        public int getScanThreads() {
+            return this.scanThreads;
+        }
+
+        public Boolean getLazyScan() {
+            return this.lazyScan;
+        }
+    }
+
+    /** OIS simulation assets staging configurations **/
+    public static class AssetsConfig {
+        /**
+         * If exists and 'link', the simulation assets are staged in the runners resources directory as hard links to the project assets,
+         * falling back to copies when the file system does not support it (i.e. the build directory is on another drive).
+         * Else, the assets are copied.
+         **/
+        private String stagingMode;
+        /**
+         * If exists and positive, it will be used as the maximum number of files copied concurrently when staging the simulation resources.
+         * Else, a worker for each available processor will be used.
+         **/
+        private int ioThreads;
+
+        public void setStagingMode(String stagingMode) {
+            this.stagingMode = stagingMode;
+        }
+
+        public void setIoThreads(int ioThreads) {
+            this.ioThreads = ioThreads;
+        }
+
+        public String getStagingMode() {
+            return this.stagingMode;
+        }
+
+        public int getIoThreads() {
+            return this.ioThreads;
+        }
+    }
+
     public void runner(Action<RunnerConfig> runnerConfigAction) {
         this.runner = new RunnerConfig();
         runnerConfigAction.execute(this.runner);
@@ -113,6 +256,16 @@ public class PluginConfiguration {
         exportConfigAction.execute(this.exportConfig);
     }
 
+    public void reflection(Action<ReflectionConfig> reflectionConfigAction) {
+        this.reflectionConfig = new ReflectionConfig();
+        reflectionConfigAction.execute(this.reflectionConfig);
+    }
+
+    public void assets(Action<AssetsConfig> assetsConfigAction) {
+        this.assetsConfig = new AssetsConfig();
+        assetsConfigAction.execute(this.assetsConfig);
+    }
+
     public ProjectConfig getProjectConfig() {
         if (this.projectConfig == null) {
             // Optional configs, we create if not exists
@@ -137,6 +290,22 @@ public class PluginConfiguration {
         return this.exportConfig;
     }
 
+    public ReflectionConfig getReflection() {
+        if (this.reflectionConfig == null) {
+            // Optional config, we create if not exists
+            this.reflectionConfig = new ReflectionConfig();
+        }
+        return this.reflectionConfig;
+    }
+
+    public AssetsConfig getAssets() {
+        if (this.assetsConfig == null) {
+            // Optional config, we create if not exists
+            this.assetsConfig = new AssetsConfig();
+        }
+        return this.assetsConfig;
+    }
+
     public String getLogLevel() {
         return logLevel;
     }
@@ -219,6 +388,94 @@ public class PluginConfiguration {
         return customRunnerVersion.trim();
     }
 
+    /**
+     * Get a given project 'runner.mirror' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - the mirror directory for the project if configured, null otherwise.
+     * @throws IllegalArgumentException - if the mirror is configured but is not an existing directory
+     */
+    public static Path getRunnerMirrorPath(Project project) {
+        Path mirror = getConfiguredPath(getPluginConfigurations(project).getRunner().getMirror());
+        if (mirror != null && !mirror.toFile().isDirectory()) {
+            throw new IllegalArgumentException("The configured runners mirror '" + mirror + "' is not an existing directory");
+        }
+        return mirror;
+    }
+
+    /**
+     * Get a given project 'runner.bundle' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - the bundle file for the project if configured, null otherwise.
+     * @throws IllegalArgumentException - if the bundle is configured but is not an existing file
+     */
+    public static Path getRunnerBundlePath(Project project) {
+        Path bundle = getConfiguredPath(getPluginConfigurations(project).getRunner().getBundle());
+        if (bundle != null && !bundle.toFile().isFile()) {
+            throw new IllegalArgumentException("The configured runners bundle '" + bundle + "' is not an existing file");
+        }
+        return bundle;
+    }
+
+    /**
+     * Get a given project 'runner.archive' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - the archive file for the project if configured, null otherwise.
+     * @throws IllegalArgumentException - if the archive is configured but is not an existing file
+     */
+    public static Path getRunnerArchivePath(Project project) {
+        Path archive = getConfiguredPath(getPluginConfigurations(project).getRunner().getArchive());
+        if (archive != null && !archive.toFile().isFile()) {
+            throw new IllegalArgumentException("The configured runners archive '" + archive + "' is not an existing file");
+        }
+        return archive;
+    }
+
+    /**
+     * Get a given project 'runner.sha256' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - sha256 value (lower case) for the project if exists, null otherwise.
+     */
+    public static String getRunnerSha256(Project project) {
+        String sha256 = getPluginConfigurations(project).getRunner().getSha256();
+        if (sha256 == null || sha256.trim().isEmpty()) {
+            return null;
+        }
+        return sha256.trim().toLowerCase();
+    }
+
+    /**
+     * Get a given project 'runner.daemonJvmArgs' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - daemonJvmArgs value for the project if exists, an empty list otherwise.
+     */
+    public static List<String> getRunnerDaemonJvmArgs(Project project) {
+        String[] daemonJvmArgs = getPluginConfigurations(project).getRunner().getDaemonJvmArgs();
+        if (daemonJvmArgs == null) {
+            return List.of();
+        }
+        return Arrays.stream(daemonJvmArgs).filter(jvmArg -> jvmArg != null && !jvmArg.isBlank()).map(String::trim).toList();
+    }
+
+    /**
+     * Get a given project 'runner.daemonIdleTimeout' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - daemonIdleTimeout value (minutes) for the project if exists and positive, null otherwise.
+     */
+    public static Integer getRunnerDaemonIdleTimeout(Project project) {
+        int daemonIdleTimeout = getPluginConfigurations(project).getRunner().getDaemonIdleTimeout();
+        if (daemonIdleTimeout <= 0) {
+            return null;
+        }
+        return daemonIdleTimeout;
+    }
+
+    private static Path getConfiguredPath(String path) {
+        if (path == null || path.trim().isEmpty()) {
+            return null;
+        }
+        return new File(path.trim()).toPath().toAbsolutePath();
+    }
+
     /**
      * Get a given project 'simulationDirPath' plugins configuration attribute value if exists
      * @param project - the project to get its plugin configuration value
@@ -278,4 +535,62 @@ public class PluginConfiguration {
         File customExportDir = new File(customExportDirPath.trim());
         return customExportDir.exists() && customExportDir.isDirectory() ? customExportDir.toPath() : null;
     }
+
+    /**
+     * Get a given project 'reflection.scanThreads' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - scanThreads value for the project if exists and positive, the number of available processors otherwise.
+     */
+    public static int getReflectionScanThreads(Project project) {
+        PluginConfiguration extension = getPluginConfigurations(project);
+        int scanThreads = extension.getReflection().getScanThreads();
+        if (scanThreads <= 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return scanThreads;
+    }
+
+    /**
+     * Get a given project 'reflection.lazyScan' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - lazyScan value for the project if exists, true otherwise.
+     */
+    public static boolean getReflectionLazyScan(Project project) {
+        PluginConfiguration extension = getPluginConfigurations(project);
+        Boolean lazyScan = extension.getReflection().getLazyScan();
+        return lazyScan == null || lazyScan;
+    }
+
+    /**
+     * Get a given project 'assets.stagingMode' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - stagingMode value for the project if exists, Copy otherwise.
+     */
+    public static DirectorySynchronizer.StagingMode getAssetsStagingMode(Project project) {
+        PluginConfiguration extension = getPluginConfigurations(project);
+        String stagingMode = extension.getAssets().getStagingMode();
+        if (stagingMode == null || stagingMode.trim().isEmpty()) {
+            return DirectorySynchronizer.StagingMode.Copy;
+        }
+        for (DirectorySynchronizer.StagingMode mode : DirectorySynchronizer.StagingMode.values()) {
+            if (mode.name().equalsIgnoreCase(stagingMode.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported assets staging mode '" + stagingMode + "', supported values: " + Arrays.toString(DirectorySynchronizer.StagingMode.values()));
+    }
+
+    /**
+     * Get a given project 'assets.ioThreads' plugins configuration attribute value if exists
+     * @param project - the project to get its plugin configuration value
+     * @return - ioThreads value for the project if exists and positive, the number of available processors otherwise.
+     */
+    public static int getAssetsIoThreads(Project project) {
+        PluginConfiguration extension = getPluginConfigurations(project);
+        int ioThreads = extension.getAssets().getIoThreads();
+        if (ioThreads <= 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return ioThreads;
+    }
 }
@@ -3,6 +3,7 @@ package org.ois.plugin;
 import org.gradle.api.*;
 import org.gradle.api.tasks.TaskProvider;
 import org.jetbrains.annotations.NotNull;
+import org.ois.core.runner.RunnerConfiguration;
 import org.ois.core.utils.Version;
 import org.ois.plugin.tasks.PrepareSimulationTask;
 import org.ois.plugin.tasks.ValidateProjectTask;
@@ -11,6 +12,8 @@ import org.ois.plugin.utils.TaskUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * The plugin entry point
  */
@@ -45,11 +48,16 @@ public class SimulationPlugin implements Plugin<Project> {
         log.info("[OIS] Adding plugin tasks");
         TaskUtils.addCleanTask(target);
         TaskProvider<ValidateProjectTask> validationTask = TaskUtils.addProjectValidationTask(target);
+        TaskUtils.addGenerateReflectionTask(target);
         TaskProvider<PrepareSimulationTask> prepareSimulationTask = TaskUtils.addPrepareSimulationTask(target, validationTask);
         TaskUtils.addRunDesktopSimulationTask(target, prepareSimulationTask);
         TaskUtils.addRunHtmlSimulationTask(target, prepareSimulationTask);
         TaskUtils.addRunAndroidSimulationTask(target, prepareSimulationTask);
 
-        TaskUtils.addDistributeSimulationTask(target, prepareSimulationTask);
+        TaskUtils.addDistributeSimulationTask(target, List.of(
+                TaskUtils.addExportSimulationTask(target, RunnerConfiguration.RunnerType.Html, Const.Tasks.EXPORT_HTML_SIMULATION_TASK_NAME, Const.Tasks.EXPORT_HTML_SIMULATION_TASK_DESCRIPTION, prepareSimulationTask),
+                TaskUtils.addExportSimulationTask(target, RunnerConfiguration.RunnerType.Desktop, Const.Tasks.EXPORT_DESKTOP_SIMULATION_TASK_NAME, Const.Tasks.EXPORT_DESKTOP_SIMULATION_TASK_DESCRIPTION, prepareSimulationTask),
+                TaskUtils.addExportSimulationTask(target, RunnerConfiguration.RunnerType.Android, Const.Tasks.EXPORT_ANDROID_SIMULATION_TASK_NAME, Const.Tasks.EXPORT_ANDROID_SIMULATION_TASK_DESCRIPTION, prepareSimulationTask)
+        ));
     }
 }
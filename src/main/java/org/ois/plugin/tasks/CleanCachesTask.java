@@ -59,6 +59,12 @@ public class CleanCachesTask extends DefaultTask {
             log.info("Deleted generated assets directory");
         }
 
+        // Clean plugin caches
+        Path oisCacheDirPath = SimulationUtils.getSimulationCacheDirectory(project);
+        if (oisCacheDirPath.toFile().exists() && FileUtils.deleteDirectoryContent(oisCacheDirPath) && oisCacheDirPath.toFile().delete()) {
+            log.info("Deleted plugin cache directory");
+        }
+
         // Clean distribution artifacts
         Path oisDistributionDirPath = SimulationUtils.getSimulationDistributionDirectory(project);
         if (oisDistributionDirPath.toFile().exists() && FileUtils.deleteDirectoryContent(oisDistributionDirPath) && oisDistributionDirPath.toFile().delete()) {
@@ -0,0 +1,223 @@
+package org.ois.plugin.tasks;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.gradle.workers.WorkerExecutor;
+import org.ois.core.project.SimulationManifest;
+import org.ois.core.runner.RunnerConfiguration;
+import org.ois.core.utils.io.FileUtils;
+import org.ois.core.utils.io.ZipUtils;
+import org.ois.plugin.Const;
+import org.ois.plugin.PluginConfiguration;
+import org.ois.plugin.tools.RunnerConnectionService;
+import org.ois.plugin.utils.AndroidUtils;
+import org.ois.plugin.utils.DesktopUtils;
+import org.ois.plugin.utils.HtmlUtils;
+import org.ois.plugin.utils.SimulationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+/**
+ * Generate the production artifacts of the project simulation for a single platform, ready for distribution.
+ * All the inputs are relative to their roots, so the artifacts can be restored from the build cache (local or remote) of another workspace.
+ * The Android artifacts are not cached, they are signed with the keystore given by the environment of the build, which is not an input of the task.
+ * The Desktop artifacts are native, they are cached by the OS, architecture and JDK of the machine that builds them.
+ * The export runs as a work item, the export tasks of the different platforms run concurrently (bounded by the Gradle '--max-workers'),
+ * the distribution tasks of the platforms that wait for the runner are combined to a single parallel runner build.
+ */
+@CacheableTask
+public abstract class ExportSimulationTask extends DefaultTask {
+    private static final Logger log = LoggerFactory.getLogger(ExportSimulationTask.class);
+
+    public ExportSimulationTask() {
+        // The signing configuration (keystore, passwords) is passed to the runner build by environment variables, a cache hit could hold artifacts signed by another keystore
+        getOutputs().doNotCacheIf("Android artifacts are signed with the keystore from the build environment", task -> RunnerConfiguration.RunnerType.Android.equals(getPlatform().getOrNull()));
+    }
+
+    /**
+     * The platform (runner type) to export
+     * @return the platform of the task
+     */
+    @Input
+    public abstract Property<RunnerConfiguration.RunnerType> getPlatform();
+
+    /**
+     * The prepared simulation resources that are packed with the artifacts
+     * @return the 'build/ois/resources' directory
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getSimulationResourcesDirectory() {
+        return SimulationUtils.getSimulationRunnersResourcesDirectory(getProject()).toFile();
+    }
+
+    /**
+     * The sources of the runner that builds the artifacts, without its build outputs, caches and the runners of other platforms
+     * @return the runner source files
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileCollection getRunnerFiles() {
+        SimulationUtils.SimulationRunner runner = SimulationUtils.getRunner(getProject());
+        List<String> excludes = new ArrayList<>(List.of("**/build/**", "**/.gradle/**", "**/.git/**"));
+        for (RunnerConfiguration.RunnerType platform : RunnerConfiguration.RunnerType.values()) {
+            if (!platform.equals(getPlatform().get())) {
+                excludes.add(runner.workingDirectory.relativize(runner.getPlatformRunnerDirectory(platform)) + "/**");
+            }
+        }
+        return getProject().fileTree(runner.workingDirectory, files -> files.exclude(excludes));
+    }
+
+    /**
+     * The machine that builds the artifacts, the Desktop artifacts are a native application image bundled with the JDK of the runner build.
+     * The runner build runs on the JDK of this build (the Tooling API default), so a cache hit is only shared between machines of the same OS, architecture and JDK.
+     * @return the OS, architecture and Java version and vendor for the Desktop platform, empty for the other platforms
+     */
+    @Input
+    public Map<String, String> getBuildMachine() {
+        if (!RunnerConfiguration.RunnerType.Desktop.equals(getPlatform().get())) {
+            // The Html (TeaVM) artifacts are platform independent, the Android artifacts are not cached
+            return Map.of();
+        }
+        return Map.of(
+                "os.name", System.getProperty("os.name"),
+                "os.arch", System.getProperty("os.arch"),
+                "java.version", System.getProperty("java.version"),
+                "java.vendor", System.getProperty("java.vendor")
+        );
+    }
+
+    /**
+     * The project information that is passed to the runner (version, group, version code)
+     * @return the project information by its runner environment variable name
+     */
+    @Input
+    public Map<String, String> getProjectInformation() {
+        return Map.of(
+                Const.SimulationEnvVar.PROJECT_VERSION, getProject().getVersion().toString(),
+                Const.SimulationEnvVar.PROJECT_VERSION_NUMBER, String.valueOf(((Map<String, Object>) getProject().getProperties()).getOrDefault("versionCode", 1)),
+                Const.SimulationEnvVar.PROJECT_GROUP, getProject().getGroup().toString()
+        );
+    }
+
+    /**
+     * Get the directory to export the platform artifacts to (a directory named as the platform in the distribution directory)
+     * @return the platform distribution directory
+     */
+    @OutputDirectory
+    public File getOutputDirectory() {
+        Path distributionDirPath = PluginConfiguration.getCustomExportDirPath(getProject());
+        if (distributionDirPath == null) {
+            distributionDirPath = SimulationUtils.getSimulationDistributionDirectory(getProject());
+        }
+        return distributionDirPath.resolve(getPlatform().get().name()).toFile();
+    }
+
+    /**
+     * The connections to the runners, the exports of all the platforms share the connection to the runner
+     * @return the runners connection service
+     */
+    @Internal
+    public abstract Property<RunnerConnectionService> getRunnerConnections();
+
+    /**
+     * The executor that runs the export work, allowing the export of the other platforms to run at the same time
+     * @return the worker executor
+     */
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    /**
+     * Generate the project simulation production artifacts for the platform of the task.
+     * The export is submitted as a work item, so the export tasks of the other platforms (in the same project) can run concurrently with it.
+     * @throws IOException - in case of error when reading the simulation manifest
+     */
+    @TaskAction
+    public void export() throws IOException {
+        SimulationManifest manifest = SimulationUtils.getSimulationManifest(getProject());
+        Map<String, String> environment = SimulationUtils.getDistributeSimulationTaskEnvVariables(manifest, getProject());
+        environment.putAll(System.getenv());
+        SimulationUtils.SimulationRunner runner = SimulationUtils.getRunner(getProject());
+        getWorkerExecutor().noIsolation().submit(ExportAction.class, parameters -> {
+            parameters.getPlatform().set(getPlatform());
+            parameters.getRunnerDirectory().set(runner.workingDirectory.toFile());
+            parameters.getPlatformRunnerDirectory().set(runner.getPlatformRunnerDirectory(getPlatform().get()).toFile());
+            parameters.getOutputDirectory().set(getOutputDirectory());
+            parameters.getTitle().set(manifest.getTitle());
+            parameters.getEnvironment().set(environment);
+            parameters.getRunnerConnections().set(getRunnerConnections());
+        });
+    }
+
+    /**
+     * The parameters of a single platform export work item
+     */
+    public interface ExportParameters extends WorkParameters {
+        /** The platform to export **/
+        Property<RunnerConfiguration.RunnerType> getPlatform();
+        /** The working directory of the runners project **/
+        DirectoryProperty getRunnerDirectory();
+        /** The directory of the runner project of the platform **/
+        DirectoryProperty getPlatformRunnerDirectory();
+        /** The directory to generate the platform artifacts in **/
+        DirectoryProperty getOutputDirectory();
+        /** The title of the simulation, used as the artifacts name **/
+        Property<String> getTitle();
+        /** The environment variables of the runner build **/
+        MapProperty<String, String> getEnvironment();
+        /** The connections to the runners **/
+        Property<RunnerConnectionService> getRunnerConnections();
+    }
+
+    /**
+     * Build the platform artifacts with the runner and collect them to the output directory
+     */
+    public abstract static class ExportAction implements WorkAction<ExportParameters> {
+        @Override
+        public void execute() {
+            RunnerConfiguration.RunnerType platform = getParameters().getPlatform().get();
+            Path runnerDirPath = getParameters().getRunnerDirectory().get().getAsFile().toPath();
+            Path platformRunnerDirPath = getParameters().getPlatformRunnerDirectory().get().getAsFile().toPath();
+            Path outputDirPath = getParameters().getOutputDirectory().get().getAsFile().toPath();
+            String title = getParameters().getTitle().get();
+            try {
+                // Remove artifacts of a previous export, the directory holds only the artifacts of the current inputs
+                if (!FileUtils.createDirIfNotExists(outputDirPath, true)) {
+                    FileUtils.deleteDirectoryContent(outputDirPath);
+                }
+                log.info("[{}] Exporting artifacts", platform);
+                getParameters().getRunnerConnections().get().runCombinedTasks(runnerDirPath, getParameters().getEnvironment().get(), log, SimulationUtils.getRunnerDistributionGradleTasks(platform));
+                log.info("[{}] Collect artifacts...", platform);
+                switch (platform) {
+                    case Html -> ZipUtils.zipItems(outputDirPath.resolve(title + ".zip"), HtmlUtils.getHtmlFilesToZip(platformRunnerDirPath));
+                    case Desktop -> {
+                        // Copy jar
+                        FileUtils.copyDirectoryContent(platformRunnerDirPath.resolve("build").resolve("libs"), outputDirPath);
+                        // Zip application
+                        ZipUtils.zipItems(outputDirPath.resolve(title + ".zip"), DesktopUtils.getDesktopFilesToZip(platformRunnerDirPath));
+                    }
+                    case Android -> ZipUtils.zipItems(outputDirPath.resolve(title + ".zip"), AndroidUtils.getAndroidFilesToZip(platformRunnerDirPath));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("[%s] Failed to collect artifacts", platform), e);
+            }
+            log.info("[{}] Artifacts generated successfully at {}", platform, outputDirPath);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.ois.plugin.tasks;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Project;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.FileType;
+import org.gradle.api.tasks.*;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.ois.plugin.PluginConfiguration;
+import org.ois.plugin.tools.ClassImplementationFinder;
+import org.ois.plugin.tools.ProjectClassesIndex;
+import org.ois.plugin.utils.HtmlUtils;
+import org.ois.plugin.utils.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generate the list of project classes that need to be accessible by reflection in the HTML runner.
+ * Only the class files that changed since the last execution are read, the headers of the rest are loaded from a persistent index.
+ * The list is generated from all the current project classes, so classes that were removed or changed are dropped from it.
+ */
+public abstract class GenerateReflectionTask extends DefaultTask {
+    private static final Logger log = LoggerFactory.getLogger(GenerateReflectionTask.class);
+
+    /**
+     * The compiled main classes of the project (for each of the project languages)
+     * @return the project class files
+     */
+    @Incremental
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getProjectClasses();
+
+    /**
+     * The runtime classpath of the project, a change in the classpath requires to resolve all the project classes again
+     * @return the runtime classpath
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getRuntimeClasspath();
+
+    /**
+     * The OIS classes that their implementations are reflected
+     * @return the full names of the target classes
+     */
+    @Input
+    public Set<String> getTargetClasses() {
+        return HtmlUtils.getReflectionTargetClasses();
+    }
+
+    /**
+     * The generated reflection items file
+     * @return the file that holds the reflection items
+     */
+    @OutputFile
+    public File getReflectionFile() {
+        return HtmlUtils.getGeneratedReflectionFilePath(getProject()).toFile();
+    }
+
+    /**
+     * The persistent index of the project class files headers
+     * @return the index file
+     */
+    @OutputFile
+    public File getProjectClassesIndexFile() {
+        return HtmlUtils.getProjectClassesIndexFilePath(getProject()).toFile();
+    }
+
+    /**
+     * Generate the reflection items file, reading only the changed class files when possible
+     * @param inputChanges - the changes of the task inputs since its last execution
+     * @throws IOException - in case of error when reading the class files or writing the generated files
+     */
+    @TaskAction
+    public void generateReflection(InputChanges inputChanges) throws IOException {
+        Project project = getProject();
+        // Without a previous execution (or if a non incremental input changed) all the class files are reported as added
+        ProjectClassesIndex classesIndex = inputChanges.isIncremental() ? ProjectClassesIndex.load(getProjectClassesIndexFile().toPath()) : ProjectClassesIndex.empty(getProjectClassesIndexFile().toPath());
+        int changedClasses = 0;
+        for (FileChange change : inputChanges.getFileChanges(getProjectClasses())) {
+            if (change.getFileType() == FileType.DIRECTORY) {
+                continue;
+            }
+            changedClasses++;
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                classesIndex.remove(change.getFile());
+            } else {
+                classesIndex.put(change.getFile());
+            }
+        }
+        log.debug("Generating reflection items, {} project class files changed (incremental = {})", changedClasses, inputChanges.isIncremental());
+        Map<String, Set<String>> implementations = ClassImplementationFinder.findAll(classesIndex.getClasses(), getRuntimeClasspath().getFiles(), HtmlUtils.getClasspathIndexFilePath(project), getTargetClasses(), PluginConfiguration.getReflectionScanThreads(project), PluginConfiguration.getReflectionLazyScan(project));
+        IOUtils.writeIfChanged(getReflectionFile().toPath(), HtmlUtils.generateReflectionFileContent(implementations));
+        classesIndex.save();
+    }
+}
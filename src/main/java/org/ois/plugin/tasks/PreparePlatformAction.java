@@ -0,0 +1,140 @@
+package org.ois.plugin.tasks;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.ois.core.runner.RunnerConfiguration;
+import org.ois.plugin.tools.FileContentReplacer;
+import org.ois.plugin.utils.AndroidUtils;
+import org.ois.plugin.utils.DesktopUtils;
+import org.ois.plugin.utils.HtmlUtils;
+import org.ois.plugin.utils.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Prepare the runner of a single platform with the project configurations (the platform specific preparation steps).
+ * Runs as a work item, so the preparation of the different platforms runs concurrently.
+ */
+public abstract class PreparePlatformAction implements WorkAction<PreparePlatformAction.Parameters> {
+    private static final Logger log = LoggerFactory.getLogger(PreparePlatformAction.class);
+
+    /**
+     * The parameters of a single platform preparation work item
+     */
+    public interface Parameters extends WorkParameters {
+        /** The platform to prepare **/
+        Property<RunnerConfiguration.RunnerType> getPlatform();
+        /** The directory of the runner project of the platform **/
+        DirectoryProperty getPlatformRunnerDirectory();
+        /** The title of the simulation **/
+        Property<String> getTitle();
+        /** The screen width of the simulation **/
+        Property<Integer> getScreenWidth();
+        /** The screen height of the simulation **/
+        Property<Integer> getScreenHeight();
+        /** The log level of the simulation **/
+        Property<String> getLogLevel();
+        /** Optional, the log topics to show **/
+        ListProperty<String> getLogTopics();
+        /** True to run the simulation in debug mode **/
+        Property<Boolean> getDebugMode();
+        /** Optional, the dev mode directory (Desktop only) **/
+        Property<String> getDevModeDir();
+        /** The reflection items generated for the project (Html only) **/
+        RegularFileProperty getGeneratedReflectionFile();
+        /** The reflection items file that is used by the runner (Html only) **/
+        RegularFileProperty getReflectionItemsFile();
+    }
+
+    @Override
+    public void execute() {
+        RunnerConfiguration.RunnerType platform = getParameters().getPlatform().get();
+        Path platformRunnerDirectory = getParameters().getPlatformRunnerDirectory().get().getAsFile().toPath();
+        log.debug("Prepare {} resources...", platform);
+        try {
+            switch (platform) {
+                case Html -> prepareHtmlResources(platformRunnerDirectory);
+                case Desktop -> prepareDesktopResources(platformRunnerDirectory);
+                case Android -> prepareAndroidResources(platformRunnerDirectory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to prepare %s resources", platform), e);
+        }
+    }
+
+    private Map<String, Object> getLogAttributes() {
+        Map<String, Object> attributes = new HashMap<>(Map.of(
+                "LOG_LEVEL", getParameters().getLogLevel().get(),
+                "DEBUG_MODE", getParameters().getDebugMode().get()
+        ));
+        if (getParameters().getLogTopics().isPresent()) {
+            attributes.put("LOG_TOPICS", getParameters().getLogTopics().get().toArray(String[]::new));
+        }
+        return attributes;
+    }
+
+    private void prepareHtmlResources(Path htmlRunnerDirectory) throws IOException {
+        // Attributes to inject
+        Map<String, Object> htmlSimulationConfigFileAttributes = getLogAttributes();
+        htmlSimulationConfigFileAttributes.put("TITLE", getParameters().getTitle().get());
+        htmlSimulationConfigFileAttributes.put("SCREEN_WIDTH", getParameters().getScreenWidth().get());
+        htmlSimulationConfigFileAttributes.put("SCREEN_HEIGHT", getParameters().getScreenHeight().get());
+        // Generate new content with injected values
+        String updatedContent = FileContentReplacer.Java.replaceJavaStaticFinalVals(HtmlUtils.getSimulationConfigContent(htmlRunnerDirectory), htmlSimulationConfigFileAttributes);
+        log.debug("Replacing 'HtmlSimulationConfig.java' content at runner directory with the project config:\n{}", updatedContent);
+        if (!IOUtils.writeIfChanged(HtmlUtils.getSimulationConfigPath(htmlRunnerDirectory), updatedContent)) {
+            log.debug("'HtmlSimulationConfig.java' content is unchanged, keeping the existing file");
+        }
+        // Transfer the reflection items generated by the 'generateReflection' task, removing a previous list if there are no items
+        Path reflectionItemsFilePath = getParameters().getReflectionItemsFile().get().getAsFile().toPath();
+        Path generatedReflectionFilePath = getParameters().getGeneratedReflectionFile().get().getAsFile().toPath();
+        String reflectionsContent = generatedReflectionFilePath.toFile().exists() ? Files.readString(generatedReflectionFilePath) : "";
+        if (reflectionsContent.isBlank()) {
+            log.debug("No items to reflect");
+            Files.deleteIfExists(reflectionItemsFilePath);
+            return;
+        }
+        IOUtils.writeIfChanged(reflectionItemsFilePath, reflectionsContent);
+    }
+
+    private void prepareDesktopResources(Path desktopRunnerDirectory) throws IOException {
+        // Attributes to inject
+        Map<String, Object> desktopSimulationConfigFileAttributes = getLogAttributes();
+        String devModeDir = getParameters().getDevModeDir().getOrNull();
+        if (devModeDir != null && !devModeDir.isBlank()) {
+            desktopSimulationConfigFileAttributes.put("DEV_MODE_DIR", devModeDir);
+        }
+        // Generate new content with injected values
+        String updatedContent = FileContentReplacer.Java.replaceJavaStaticFinalVals(DesktopUtils.getSimulationConfigContent(desktopRunnerDirectory), desktopSimulationConfigFileAttributes);
+        log.debug("Replacing 'DesktopSimulationConfig.java' content at runner directory with the project config:\n{}", updatedContent);
+        if (!IOUtils.writeIfChanged(DesktopUtils.getSimulationConfigPath(desktopRunnerDirectory), updatedContent)) {
+            log.debug("'DesktopSimulationConfig.java' content is unchanged, keeping the existing file");
+        }
+    }
+
+    private void prepareAndroidResources(Path androidRunnerDirectory) throws IOException {
+        // Generate new content with injected values
+        String updatedContent = FileContentReplacer.Java.replaceJavaStaticFinalVals(AndroidUtils.getSimulationConfigContent(androidRunnerDirectory), getLogAttributes());
+        log.debug("Replacing 'AndroidSimulationConfig.java' content at runner directory with the project config:\n{}", updatedContent);
+        if (!IOUtils.writeIfChanged(AndroidUtils.getSimulationConfigPath(androidRunnerDirectory), updatedContent)) {
+            log.debug("'AndroidSimulationConfig.java' content is unchanged, keeping the existing file");
+        }
+        // Inject title
+        updatedContent = FileContentReplacer.Xml.replaceXmlAttributes(AndroidUtils.getAndroidRunnerResourceStringValuesContent(androidRunnerDirectory), Map.of("app_name", getParameters().getTitle().get()));
+        log.debug("Replacing 'strings.xml' content at runner directory with the project title:\n{}", updatedContent);
+        if (!IOUtils.writeIfChanged(AndroidUtils.getAndroidRunnerResourceStringValuesPath(androidRunnerDirectory), updatedContent)) {
+            log.debug("'strings.xml' content is unchanged, keeping the existing file");
+        }
+    }
+}
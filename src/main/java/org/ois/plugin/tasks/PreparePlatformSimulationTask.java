@@ -0,0 +1,166 @@
+package org.ois.plugin.tasks;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+import org.gradle.api.tasks.Optional;
+import org.gradle.workers.WorkerExecutor;
+import org.ois.core.project.SimulationManifest;
+import org.ois.core.runner.RunnerConfiguration;
+import org.ois.plugin.PluginConfiguration;
+import org.ois.plugin.utils.AndroidUtils;
+import org.ois.plugin.utils.DesktopUtils;
+import org.ois.plugin.utils.HtmlUtils;
+import org.ois.plugin.utils.SimulationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.inject.Inject;
+
+/**
+ * Prepare the runner of a single platform with the project configurations, on top of the shared preparation of the 'prepareSimulation' task.
+ * Each run/export task depends only on the prepare task of its platform, so running a platform does not prepare the others.
+ * The preparation runs as a work item, the prepare tasks of the different platforms run concurrently.
+ */
+public abstract class PreparePlatformSimulationTask extends DefaultTask {
+    private static final Logger log = LoggerFactory.getLogger(PreparePlatformSimulationTask.class);
+
+    /**
+     * The platform (runner type) to prepare
+     * @return the platform of the task
+     */
+    @Input
+    public abstract Property<RunnerConfiguration.RunnerType> getPlatform();
+
+    /**
+     * The prepared simulation manifest, holds the title and the screen size of the simulation
+     * @return the manifest file in the 'build/ois/resources' directory
+     */
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public File getSimulationManifestFile() {
+        return SimulationUtils.getSimulationRunnersManifestFile(getProject()).toFile();
+    }
+
+    /**
+     * The reflection items generated from the project classes for the HTML runner
+     * @return the generated reflection items file for the Html platform, or an empty collection for the other platforms
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    public FileCollection getGeneratedReflectionFile() {
+        if (!RunnerConfiguration.RunnerType.Html.equals(getPlatform().get())) {
+            return getProject().files();
+        }
+        return getProject().files(HtmlUtils.getGeneratedReflectionFilePath(getProject()));
+    }
+
+    /**
+     * The version of the runner, 'custom' for a custom runner directory
+     * @return the runner version
+     */
+    @Input
+    public String getRunnerVersion() {
+        return SimulationUtils.getRunner(getProject()).version;
+    }
+
+    /**
+     * The log level of the simulation, injected to the runner config
+     * @return the configured log level, 'Info' if not configured
+     */
+    @Input
+    public String getLogLevel() {
+        return PluginConfiguration.getLogLevel(getProject());
+    }
+
+    /**
+     * The log topics to show, injected to the runner config
+     * @return the configured log topics, null if not configured
+     */
+    @Input
+    @Optional
+    public List<String> getLogTopics() {
+        String[] logTopics = PluginConfiguration.getLogTopics(getProject());
+        return logTopics == null ? null : List.of(logTopics);
+    }
+
+    /**
+     * The debug mode of the simulation, injected to the runner config
+     * @return true if debug mode is configured or set by the '-Dorg.ois.runner.debugMode' system property, false otherwise
+     */
+    @Input
+    public boolean getDebugMode() {
+        return PluginConfiguration.getDebugMode(getProject());
+    }
+
+    /**
+     * The dev mode directory, only used by the Desktop runner
+     * @return the dev mode directory for the Desktop platform, null otherwise
+     */
+    @Input
+    @Optional
+    public String getDevModeDir() {
+        if (!RunnerConfiguration.RunnerType.Desktop.equals(getPlatform().get())) {
+            return null;
+        }
+        return PluginConfiguration.getDevModeDir(getProject());
+    }
+
+    /**
+     * The runner files of the platform that are generated with the project configurations
+     * @return the config files of the platform runner
+     */
+    @OutputFiles
+    public List<File> getRunnerConfigFiles() {
+        Path platformRunnerDirectory = SimulationUtils.getRunner(getProject()).getPlatformRunnerDirectory(getPlatform().get());
+        return switch (getPlatform().get()) {
+            case Html -> List.of(
+                    HtmlUtils.getSimulationConfigPath(platformRunnerDirectory).toFile(),
+                    HtmlUtils.getReflectionsItemsFilePath(getProject()).toFile()
+            );
+            case Desktop -> List.of(DesktopUtils.getSimulationConfigPath(platformRunnerDirectory).toFile());
+            case Android -> List.of(
+                    AndroidUtils.getSimulationConfigPath(platformRunnerDirectory).toFile(),
+                    AndroidUtils.getAndroidRunnerResourceStringValuesPath(platformRunnerDirectory).toFile()
+            );
+        };
+    }
+
+    /**
+     * The executor that runs the platform preparation, allowing the preparation of the other platforms to run at the same time
+     * @return the worker executor
+     */
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    /**
+     * Prepare the runner of the platform with the project configurations
+     * @throws IOException - in case of error when reading the simulation manifest
+     */
+    @TaskAction
+    public void preparePlatform() throws IOException {
+        RunnerConfiguration.RunnerType platform = getPlatform().get();
+        SimulationManifest manifest = SimulationUtils.getSimulationManifest(getProject());
+        SimulationUtils.SimulationRunner runner = SimulationUtils.getRunner(getProject());
+        log.info("Prepare {} simulation environment", platform);
+        getWorkerExecutor().noIsolation().submit(PreparePlatformAction.class, parameters -> {
+            parameters.getPlatform().set(platform);
+            parameters.getPlatformRunnerDirectory().set(runner.getPlatformRunnerDirectory(platform).toFile());
+            parameters.getTitle().set(manifest.getTitle());
+            parameters.getScreenWidth().set(manifest.getScreenWidth());
+            parameters.getScreenHeight().set(manifest.getScreenHeight());
+            parameters.getLogLevel().set(getLogLevel());
+            parameters.getLogTopics().set(getLogTopics());
+            parameters.getDebugMode().set(getDebugMode());
+            parameters.getDevModeDir().set(getDevModeDir());
+            parameters.getGeneratedReflectionFile().set(HtmlUtils.getGeneratedReflectionFilePath(getProject()).toFile());
+            parameters.getReflectionItemsFile().set(HtmlUtils.getReflectionsItemsFilePath(getProject()).toFile());
+        });
+    }
+}
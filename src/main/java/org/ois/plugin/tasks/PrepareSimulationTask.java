@@ -1,10 +1,11 @@
 package org.ois.plugin.tasks;
 
-import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
-import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.tasks.*;
+import org.gradle.api.tasks.Optional;
 import org.ois.core.project.Assets;
 import org.ois.core.project.Entities;
 import org.ois.core.project.SimulationManifest;
@@ -14,8 +15,9 @@ import org.ois.core.utils.io.FileUtils;
 import org.ois.core.utils.io.data.formats.JsonFormat;
 import org.ois.plugin.Const;
 import org.ois.plugin.PluginConfiguration;
+import org.ois.plugin.tools.DirectorySynchronizer;
 import org.ois.plugin.tools.IconHandler;
-import org.ois.plugin.tools.FileContentReplacer;
+import org.ois.plugin.tools.RunnerStore;
 import org.ois.plugin.utils.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,10 +31,112 @@ import java.nio.file.Path;
 import java.util.*;
 
 /**
- * Make sure the needed components for the deployer are ready to be used for running/debugging/exporting the OIS project
+ * Make sure the needed components for the deployer are ready to be used for running/debugging/exporting the OIS project.
+ * Prepares the runner and the resources that are shared by all the platforms, the platform specific steps are done by the platform prepare tasks.
+ * The task is up-to-date when the project simulation files and the runner did not change since its last execution, and the runner files were not removed from its working directory.
+ * It is not cacheable, it also downloads the runner to its working directory, which is not restored from the build cache.
+ * The runner version (a branch or tag) is resolved to a commit on the first run, and the project keeps using that commit until the caches are cleaned ('cleanSimulationEnv'),
+ * a moving branch (i.e. 'main') is not updated between builds.
  */
 public class PrepareSimulationTask extends DefaultTask {
     private static final Logger log = LoggerFactory.getLogger(PrepareSimulationTask.class);
+    private static final String OFFLINE_HINT = "Run the build online once, or configure a local runners 'bundle', 'mirror' or 'archive' in the plugin 'runner' configurations.";
+
+    public PrepareSimulationTask() {
+        // The runner working directory is not an output, the runner builds write their own outputs in it.
+        // Instead, the task is out-of-date if the runner files were removed from the working directory since the runner was materialized
+        getOutputs().upToDateWhen(task -> isRunnerMaterialized(getProject(), SimulationUtils.getRunner(getProject())));
+    }
+
+    /**
+     * The project 'simulation' directory (custom or default), that holds the manifest, assets, entities, states and icons
+     * @return the project simulation directory
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getSimulationDirectory() {
+        Path projectSimulationDir = PluginConfiguration.getCustomSimulationDirPath(getProject());
+        if (projectSimulationDir == null) {
+            projectSimulationDir = SimulationUtils.getProjectSimulationConfigDirectory(getProject());
+        }
+        return projectSimulationDir.toFile();
+    }
+
+    /**
+     * The project resources directory, its content is added to the simulation assets
+     * @return the project 'src/main/resources' directory
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getProjectResourcesDirectory() {
+        return SimulationUtils.getProjectResourcesDirectory(getProject()).toFile();
+    }
+
+    /**
+     * The content of the custom runner directory, if configured, without its build outputs
+     * @return the custom runner files, or an empty collection if the runner is not custom
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileCollection getCustomRunnerFiles() {
+        SimulationUtils.SimulationRunner runner = SimulationUtils.getRunner(getProject());
+        if (!runner.isCustom()) {
+            return getProject().files();
+        }
+        return getProject().fileTree(runner.customSourceDir, files -> Const.RUNNER_EXCLUDED_DIRECTORIES.forEach(directory -> files.exclude("**/" + directory + "/**")));
+    }
+
+    /**
+     * The version of the runner, 'custom' for a custom runner directory
+     * @return the runner version
+     */
+    @Input
+    public String getRunnerVersion() {
+        return SimulationUtils.getRunner(getProject()).version;
+    }
+
+    /**
+     * The commit the runner version is pinned to, not resolved yet on the first run and null for a custom runner directory
+     * @return the pinned runner commit
+     */
+    @Input
+    @Optional
+    public String getRunnerCommit() {
+        return SimulationUtils.getRunner(getProject()).commit;
+    }
+
+    /**
+     * How the simulation assets are staged in the runners resources directory
+     * @return the assets staging mode
+     */
+    @Input
+    public DirectorySynchronizer.StagingMode getAssetsStagingMode() {
+        return PluginConfiguration.getAssetsStagingMode(getProject());
+    }
+
+    /**
+     * The simulation resources that are used by all the runners.
+     * The resources directory itself is not an output, it also holds platform specific resources that are prepared by the platform tasks.
+     * @return the assets, entities, states and icons directories in the 'build/ois/resources' directory
+     */
+    @OutputDirectories
+    public List<File> getSimulationResourcesDirectories() {
+        return List.of(
+                SimulationUtils.getSimulationRunnersAssetsDirectory(getProject()).toFile(),
+                SimulationUtils.getSimulationRunnersEntitiesDirectory(getProject()).toFile(),
+                SimulationUtils.getSimulationRunnersStatesDirectory(getProject()).toFile(),
+                SimulationUtils.getSimulationRunnersIconsDirectory(getProject()).toFile()
+        );
+    }
+
+    /**
+     * The simulation manifest that is used by the runners
+     * @return the manifest file in the 'build/ois/resources' directory
+     */
+    @OutputFile
+    public File getSimulationManifestFile() {
+        return SimulationUtils.getSimulationRunnersManifestFile(getProject()).toFile();
+    }
 
     /**
      * Prepare the components and environment for OIS simulation actions
@@ -51,22 +155,7 @@ public class PrepareSimulationTask extends DefaultTask {
         }
         // Prepare runner and resources for the simulation
         SimulationUtils.SimulationRunner runner = prepareRunners(getProject());
-        SimulationManifest manifest = prepareResources(runner, getProject());
-        // Prepare Html extra steps
-        if (manifest.getPlatforms().contains(RunnerConfiguration.RunnerType.Html)) {
-            log.debug("Prepare html resources...");
-            prepareHtmlResources(getProject(), runner, manifest);
-        }
-        // Prepare Desktop extra steps
-        if (manifest.getPlatforms().contains(RunnerConfiguration.RunnerType.Desktop)) {
-            log.debug("Prepare Desktop resources...");
-            prepareDesktopResources(getProject(), runner);
-        }
-        // Prepare Android extra steps
-        if (manifest.getPlatforms().contains(RunnerConfiguration.RunnerType.Android)) {
-            log.debug("Prepare Android resources...");
-            prepareAndroidResources(getProject(), runner, manifest);
-        }
+        prepareResources(runner, getProject());
         log.info("Simulation environment is ready");
     }
 
@@ -76,24 +165,99 @@ public class PrepareSimulationTask extends DefaultTask {
             log.debug("Created simulation runners directory");
         }
         SimulationUtils.SimulationRunner runner = SimulationUtils.getRunner(project);
+        if (!runner.isCustom() && runner.commit == null) {
+            runner = pinRunnerCommit(project, runner);
+        }
         if (FileUtils.createDirIfNotExists(runner.workingDirectory, true)) {
             log.debug("Created simulation runner '{}' directory {}", runner.version, runner.workingDirectory);
-            if (!runner.isCustom()) {
-                // Fetch runner only if not exists in project cache
-                try (Git git = GitUtils.cloneRepoByTag(Const.OIS_RUNNERS_GIT_REPO_URL, runner.version, runner.workingDirectory)) {
-                    log.debug("Runner content downloaded successfully");
-                }
-            }
+        }
+        // Materialize the runner only if not exists in project cache, or if runner files were removed from it.
+        // The directory itself may already exist without the runner (Gradle creates the parent directories of the task outputs)
+        if (!runner.isCustom() && !isRunnerMaterialized(project, runner)) {
+            materializeRunner(project, runner);
         }
         if (runner.isCustom()) {
-            // Always copy custom source dir
-            FileUtils.copyDirectoryContent(runner.customSourceDir, runner.workingDirectory, "**/*.git*/**");
-            log.debug("Runner custom content copied successfully");
+            syncCustomRunner(project, runner);
         }
         log.info("Using simulation runner: {}", runner);
         return runner;
     }
 
+    private static boolean isRunnerMaterialized(Project project, SimulationUtils.SimulationRunner runner) {
+        if (!runner.isCustom() && (runner.commit == null || !runner.getCommitFile().toFile().exists())) {
+            return false;
+        }
+        return getRunnerSynchronizer(project, runner).isSynchronized();
+    }
+
+    private static DirectorySynchronizer getRunnerSynchronizer(Project project, SimulationUtils.SimulationRunner runner) {
+        if (runner.isCustom()) {
+            // Copy only the changed custom runner sources, the runner build outputs in the working directory are kept for its incremental build
+            return new DirectorySynchronizer(runner.workingDirectory, SimulationUtils.getSimulationSyncManifestFile(project, "runner-custom"), DirectorySynchronizer.StagingMode.Copy, PluginConfiguration.getAssetsIoThreads(project));
+        }
+        // Link the stored runner files to the working directory, the runner files that are generated by the plugin are replaced and not modified
+        return new DirectorySynchronizer(runner.workingDirectory, SimulationUtils.getSimulationSyncManifestFile(project, "runner-" + runner.commit), DirectorySynchronizer.StagingMode.Link, PluginConfiguration.getAssetsIoThreads(project));
+    }
+
+    private void syncCustomRunner(Project project, SimulationUtils.SimulationRunner runner) throws IOException {
+        DirectorySynchronizer.Result result = getRunnerSynchronizer(project, runner).sync(List.of(runner.customSourceDir), Const.RUNNER_EXCLUDED_DIRECTORIES);
+        log.debug("Runner custom content synchronized: {}", result);
+    }
+
+    private SimulationUtils.SimulationRunner pinRunnerCommit(Project project, SimulationUtils.SimulationRunner runner) throws IOException, GitAPIException {
+        String repositoryURL = getRunnersRepositoryURL(project);
+        if (isOffline(project, repositoryURL)) {
+            throw new IllegalStateException("Runner version '" + runner.version + "' is not resolved yet and Gradle is offline. " + OFFLINE_HINT);
+        }
+        // Resolve the version once, the runner stays at the commit until the plugin caches are cleaned
+        String commit = GitUtils.resolveCommit(repositoryURL, runner.version);
+        Path pinnedCommitFile = SimulationUtils.getPinnedRunnerCommitFile(project, runner.version);
+        Files.createDirectories(pinnedCommitFile.getParent());
+        IOUtils.writeIfChanged(pinnedCommitFile, commit);
+        log.info("Runner version '{}' resolved to commit {}", runner.version, commit);
+        return SimulationUtils.getRunner(project);
+    }
+
+    private void materializeRunner(Project project, SimulationUtils.SimulationRunner runner) throws IOException, GitAPIException {
+        RunnerStore store = new RunnerStore(SimulationUtils.getRunnersStoreDirectory(project));
+        Path storedRunner;
+        if (runner.isArchive()) {
+            storedRunner = store.provideArchive(runner.archive, runner.commit, PluginConfiguration.getRunnerSha256(project));
+        } else {
+            String repositoryURL = getRunnersRepositoryURL(project);
+            if (isOffline(project, repositoryURL) && !Files.isDirectory(store.getRunnerDirectory(runner.commit))) {
+                throw new IllegalStateException("Runner '" + runner.version + "' (" + runner.commit + ") is not in the runners store and Gradle is offline. " + OFFLINE_HINT);
+            }
+            storedRunner = store.provide(repositoryURL, runner.version, runner.commit);
+        }
+        // The build outputs of the runner in the working directory are kept, also when the working directory is pruned on the first sync
+        DirectorySynchronizer.Result result = getRunnerSynchronizer(project, runner).sync(List.of(storedRunner), Const.RUNNER_EXCLUDED_DIRECTORIES);
+        Files.writeString(runner.getCommitFile(), runner.commit);
+        log.debug("Runner '{}' ({}) materialized from the runners store: {}", runner.version, runner.commit, result);
+    }
+
+    /**
+     * Get the repository to clone the runners from, a configured local bundle or mirror takes priority over the official runners repository.
+     * A configured bundle is verified before it is used.
+     */
+    private static String getRunnersRepositoryURL(Project project) throws IOException {
+        Path bundle = PluginConfiguration.getRunnerBundlePath(project);
+        if (bundle != null) {
+            RunnerStore.verifyChecksum(bundle, PluginConfiguration.getRunnerSha256(project));
+            return bundle.toUri().toString();
+        }
+        Path mirror = PluginConfiguration.getRunnerMirrorPath(project);
+        if (mirror != null) {
+            return mirror.toUri().toString();
+        }
+        return Const.OIS_RUNNERS_GIT_REPO_URL;
+    }
+
+    private static boolean isOffline(Project project, String repositoryURL) {
+        // Local bundles and mirrors are used offline
+        return Const.OIS_RUNNERS_GIT_REPO_URL.equals(repositoryURL) && project.getGradle().getStartParameter().isOffline();
+    }
+
     private SimulationManifest prepareResources(SimulationUtils.SimulationRunner runner, Project project) throws IOException, URISyntaxException {
         // Prepare base target directory
         Path oisResourcesDirPath = SimulationUtils.getSimulationRunnersResourcesDirectory(project);
@@ -102,10 +266,7 @@ public class PrepareSimulationTask extends DefaultTask {
         }
         log.info("Preparing project simulation resources...");
         // Copy project assets
-        Path projectSimulationDir = PluginConfiguration.getCustomSimulationDirPath(project);
-        if (projectSimulationDir == null) {
-            projectSimulationDir = SimulationUtils.getProjectSimulationConfigDirectory(project);
-        }
+        Path projectSimulationDir = getSimulationDirectory().toPath();
         log.debug("Project simulation source directory: {}", projectSimulationDir);
         // Prepare Assets
         prepareAssets(project, projectSimulationDir);
@@ -120,28 +281,31 @@ public class PrepareSimulationTask extends DefaultTask {
     }
 
     private void prepareAssets(Project project, Path projectSimulationDir) throws IOException {
-        // Copy files from assets directory in simulation dir
+        // Sync the files from the assets directory in simulation dir and from the resources directory in the project (resources take precedence)
+        List<Path> sourceDirs = new ArrayList<>();
         Path projectAssetsDir = projectSimulationDir.resolve(Assets.ASSETS_DIRECTORY);
         if (projectAssetsDir.toFile().exists() && projectAssetsDir.toFile().isDirectory()) {
-            log.debug("'assets' directory located, copy content");
-            FileUtils.copyDirectoryContent(projectAssetsDir, SimulationUtils.getSimulationRunnersAssetsDirectory(project));
+            log.debug("'assets' directory located, sync content");
+            sourceDirs.add(projectAssetsDir);
         }
-        // Copy files from resources directory in the project
         Path projectResourceDir = SimulationUtils.getProjectResourcesDirectory(project);
         if (projectResourceDir.toFile().exists() && projectResourceDir.toFile().isDirectory()) {
-            log.debug("'resources' directory located, copy content");
-            FileUtils.copyDirectoryContent(projectResourceDir, SimulationUtils.getSimulationRunnersAssetsDirectory(project));
+            log.debug("'resources' directory located, sync content");
+            sourceDirs.add(projectResourceDir);
         }
+        syncResources(project, Assets.ASSETS_DIRECTORY, SimulationUtils.getSimulationRunnersAssetsDirectory(project), sourceDirs, getAssetsStagingMode());
     }
 
     private void prepareEntitiesResources(Project project, Path projectSimulationDir) throws IOException {
         // Check if entities blueprints are provided by the project
         Path projectEntitiesDir = projectSimulationDir.resolve(Entities.ENTITIES_DIRECTORY);
         if (!projectEntitiesDir.toFile().exists() || !projectEntitiesDir.toFile().isDirectory()) {
+            // Remove entities that were synchronized before
+            syncResources(project, Entities.ENTITIES_DIRECTORY, SimulationUtils.getSimulationRunnersEntitiesDirectory(project), List.of());
             return;
         }
-        log.debug("'entities' directory located, copy content");
-        FileUtils.copyDirectoryContent(projectEntitiesDir, SimulationUtils.getSimulationRunnersEntitiesDirectory(project));
+        log.debug("'entities' directory located, sync content");
+        syncResources(project, Entities.ENTITIES_DIRECTORY, SimulationUtils.getSimulationRunnersEntitiesDirectory(project), List.of(projectEntitiesDir));
         try {
             List<String> entitiesBlueprintDirs = Arrays.stream(Objects.requireNonNull(projectEntitiesDir.toFile().listFiles())).filter(File::isDirectory).map(File::getName).toList();
             log.info(String.format("located '%d' entity blueprints: %s", entitiesBlueprintDirs.size(), entitiesBlueprintDirs));
@@ -151,15 +315,27 @@ public class PrepareSimulationTask extends DefaultTask {
     private void prepareStatesResources(Project project, Path projectSimulationDir) throws IOException {
         Path projectStatesDir = projectSimulationDir.resolve(States.STATES_DIRECTORY);
         if (!projectStatesDir.toFile().exists() || !projectStatesDir.toFile().isDirectory()) {
+            // Remove states that were synchronized before
+            syncResources(project, States.STATES_DIRECTORY, SimulationUtils.getSimulationRunnersStatesDirectory(project), List.of());
             return;
         }
-        FileUtils.copyDirectoryContent(projectStatesDir, SimulationUtils.getSimulationRunnersStatesDirectory(project));
+        syncResources(project, States.STATES_DIRECTORY, SimulationUtils.getSimulationRunnersStatesDirectory(project), List.of(projectStatesDir));
         try {
             List<String> statesManifests = Arrays.stream(Objects.requireNonNull(projectStatesDir.toFile().listFiles())).filter(File::isDirectory).map(File::getName).toList();
             log.info(String.format("located '%d' state manifests: %s", statesManifests.size(), statesManifests));
         } catch (Exception ignored) {}
     }
 
+    private void syncResources(Project project, String name, Path targetDir, List<Path> sourceDirs) throws IOException {
+        syncResources(project, name, targetDir, sourceDirs, DirectorySynchronizer.StagingMode.Copy);
+    }
+
+    private void syncResources(Project project, String name, Path targetDir, List<Path> sourceDirs, DirectorySynchronizer.StagingMode stagingMode) throws IOException {
+        DirectorySynchronizer synchronizer = new DirectorySynchronizer(targetDir, SimulationUtils.getSimulationSyncManifestFile(project, name), stagingMode, PluginConfiguration.getAssetsIoThreads(project));
+        DirectorySynchronizer.Result result = synchronizer.sync(sourceDirs);
+        log.info("Synchronized simulation '{}': {}", name, result);
+    }
+
     private void prepareIcons(SimulationUtils.SimulationRunner runner, Path projectSimulationDir) throws IOException {
         Path projectIconsDir = projectSimulationDir.resolve("icons");
         Path targetIconDir = SimulationUtils.getSimulationRunnersIconsDirectory(getProject());
@@ -177,7 +353,7 @@ public class PrepareSimulationTask extends DefaultTask {
         SimulationManifest manifest = loadProjectManifest(projectSimulationDir);
         String manifestData = JsonFormat.humanReadable().serialize(manifest);
         log.debug("Runners simulation manifest:\n{}", manifestData);
-        Files.writeString(SimulationUtils.getSimulationRunnersManifestFile(getProject()), manifestData);
+        IOUtils.writeIfChanged(SimulationUtils.getSimulationRunnersManifestFile(getProject()), manifestData);
         return manifest;
     }
 
@@ -196,70 +372,4 @@ public class PrepareSimulationTask extends DefaultTask {
         }
     }
 
-    private void prepareHtmlResources(Project project, SimulationUtils.SimulationRunner runner, SimulationManifest manifest) throws IOException {
-        // Attributes to inject
-        Map<String, Object> htmlSimulationConfigFileAttributes = new Hashtable<>(Map.of(
-                "TITLE", manifest.getTitle(),
-                "SCREEN_WIDTH", manifest.getScreenWidth(),
-                "SCREEN_HEIGHT", manifest.getScreenHeight(),
-                "LOG_LEVEL", PluginConfiguration.getLogLevel(project),
-                "DEBUG_MODE", PluginConfiguration.getDebugMode(project)
-        ));
-        String[] logTopics = PluginConfiguration.getLogTopics(project);
-        if (logTopics != null) {
-            htmlSimulationConfigFileAttributes.put("LOG_TOPICS", logTopics);
-        }
-        // Generate new content with injected values
-        String updatedContent = FileContentReplacer.Java.replaceJavaStaticFinalVals(HtmlUtils.getSimulationConfigContent(runner.getHtmlRunnerDirectory()), htmlSimulationConfigFileAttributes);
-        log.debug("Replacing 'HtmlSimulationConfig.java' content at runner directory with the project config:\n{}", updatedContent);
-        Files.writeString(HtmlUtils.getSimulationConfigPath(runner.getHtmlRunnerDirectory()), updatedContent);
-        // Generate reflections file
-        log.debug("Generating Reflection items file content");
-        String reflectionsContent = HtmlUtils.generateReflectionFileContent(project);
-        if (reflectionsContent.isBlank()) {
-            log.debug("No items to reflect");
-            return;
-        }
-        Files.writeString(HtmlUtils.getReflectionsItemsFilePath(project), reflectionsContent);
-    }
-
-    private void prepareDesktopResources(Project project, SimulationUtils.SimulationRunner runner) throws IOException {
-        // Attributes to inject
-        Map<String, Object> desktopSimulationConfigFileAttributes = new Hashtable<>(Map.of(
-                "LOG_LEVEL", PluginConfiguration.getLogLevel(project),
-                "DEBUG_MODE", PluginConfiguration.getDebugMode(project)
-        ));
-        String[] logTopics = PluginConfiguration.getLogTopics(project);
-        if (logTopics != null) {
-            desktopSimulationConfigFileAttributes.put("LOG_TOPICS", logTopics);
-        }
-        String devModeDir = PluginConfiguration.getDevModeDir(project);
-        if (devModeDir != null && !devModeDir.isBlank()) {
-            desktopSimulationConfigFileAttributes.put("DEV_MODE_DIR", devModeDir);
-        }
-        // Generate new content with injected values
-        String updatedContent = FileContentReplacer.Java.replaceJavaStaticFinalVals(DesktopUtils.getSimulationConfigContent(runner.getDesktopRunnerDirectory()), desktopSimulationConfigFileAttributes);
-        log.debug("Replacing 'DesktopSimulationConfig.java' content at runner directory with the project config:\n{}", updatedContent);
-        Files.writeString(DesktopUtils.getSimulationConfigPath(runner.getDesktopRunnerDirectory()), updatedContent);
-    }
-
-    private void prepareAndroidResources(Project project, SimulationUtils.SimulationRunner runner, SimulationManifest manifest) throws IOException {
-        // Attributes to inject
-        Map<String, Object> androidSimulationConfigFileAttributes = new Hashtable<>(Map.of(
-                "LOG_LEVEL", PluginConfiguration.getLogLevel(project),
-                "DEBUG_MODE", PluginConfiguration.getDebugMode(project)
-        ));
-        String[] logTopics = PluginConfiguration.getLogTopics(project);
-        if (logTopics != null) {
-            androidSimulationConfigFileAttributes.put("LOG_TOPICS", logTopics);
-        }
-        // Generate new content with injected values
-        String updatedContent = FileContentReplacer.Java.replaceJavaStaticFinalVals(AndroidUtils.getSimulationConfigContent(runner.getAndroidRunnerDirectory()), androidSimulationConfigFileAttributes);
-        log.debug("Replacing 'AndroidSimulationConfig.java' content at runner directory with the project config:\n{}", updatedContent);
-        Files.writeString(AndroidUtils.getSimulationConfigPath(runner.getAndroidRunnerDirectory()), updatedContent);
-        // Inject title
-        updatedContent = FileContentReplacer.Xml.replaceXmlAttributes(AndroidUtils.getAndroidRunnerResourceStringValuesContent(runner.getAndroidRunnerDirectory()), new Hashtable<>(Map.of("app_name", manifest.getTitle())));
-        log.debug("Replacing 'strings.xml' content at runner directory with the project title:\n{}", updatedContent);
-        Files.writeString(AndroidUtils.getAndroidRunnerResourceStringValuesPath(runner.getAndroidRunnerDirectory()), updatedContent);
-    }
 }
@@ -2,8 +2,11 @@ package org.ois.plugin.tasks;
 
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 import org.ois.core.runner.RunnerConfiguration;
+import org.ois.plugin.tools.RunnerConnectionService;
 import org.ois.plugin.utils.SimulationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,9 +16,16 @@ import java.io.IOException;
 /**
  * Run Android simulation of the project
  */
-public class RunAndroidSimulationTask extends DefaultTask {
+public abstract class RunAndroidSimulationTask extends DefaultTask {
     private static final Logger log = LoggerFactory.getLogger(RunAndroidSimulationTask.class);
 
+    /**
+     * The connections to the runners, the simulation runs on a daemon that is kept warm between runs
+     * @return the runners connection service
+     */
+    @Internal
+    public abstract Property<RunnerConnectionService> getRunnerConnections();
+
     /**
      * Runs the simulation on an android device (user need to configure the connected device).
      */
@@ -24,6 +34,7 @@ public class RunAndroidSimulationTask extends DefaultTask {
         log.info("Running android simulation");
         Project project = getProject();
         SimulationUtils.runSimulation(
+                getRunnerConnections().get(),
                 project,
                 RunnerConfiguration.RunnerType.Android,
                 SimulationUtils.getRunSimulationTaskEnvVariables(SimulationUtils.getSimulationManifest(project), project)
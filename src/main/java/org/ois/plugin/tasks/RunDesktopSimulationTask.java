@@ -2,8 +2,11 @@ package org.ois.plugin.tasks;
 
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 import org.ois.core.runner.RunnerConfiguration;
+import org.ois.plugin.tools.RunnerConnectionService;
 import org.ois.plugin.utils.SimulationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,9 +16,16 @@ import java.io.IOException;
 /**
  * Run Desktop simulation of the project
  */
-public class RunDesktopSimulationTask extends DefaultTask {
+public abstract class RunDesktopSimulationTask extends DefaultTask {
     private static final Logger log = LoggerFactory.getLogger(RunDesktopSimulationTask.class);
 
+    /**
+     * The connections to the runners, the simulation runs on a daemon that is kept warm between runs
+     * @return the runners connection service
+     */
+    @Internal
+    public abstract Property<RunnerConnectionService> getRunnerConnections();
+
     /**
      * Runs the simulation on a desktop (opens a window and runs the simulation on it).
      */
@@ -24,6 +34,7 @@ public class RunDesktopSimulationTask extends DefaultTask {
         log.info("Running desktop simulation");
         Project project = getProject();
         SimulationUtils.runSimulation(
+                getRunnerConnections().get(),
                 project,
                 RunnerConfiguration.RunnerType.Desktop,
                 SimulationUtils.getRunSimulationTaskEnvVariables(SimulationUtils.getSimulationManifest(project), project)
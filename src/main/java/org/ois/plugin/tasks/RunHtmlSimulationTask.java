@@ -2,8 +2,11 @@ package org.ois.plugin.tasks;
 
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 import org.ois.core.runner.RunnerConfiguration;
+import org.ois.plugin.tools.RunnerConnectionService;
 import org.ois.plugin.utils.SimulationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,9 +16,16 @@ import java.io.IOException;
 /**
  * Run Html simulation of the project
  */
-public class RunHtmlSimulationTask extends DefaultTask {
+public abstract class RunHtmlSimulationTask extends DefaultTask {
     private static final Logger log = LoggerFactory.getLogger(RunHtmlSimulationTask.class);
 
+    /**
+     * The connections to the runners, the simulation runs on a daemon that is kept warm between runs
+     * @return the runners connection service
+     */
+    @Internal
+    public abstract Property<RunnerConnectionService> getRunnerConnections();
+
     /**
      * Generate the Html JS project from the project source,
      * Set up a Server at '<a href="http://localhost:8080/">localhost:8080</a>' to serve the Html simulation.
@@ -25,6 +35,7 @@ public class RunHtmlSimulationTask extends DefaultTask {
         log.info("Running html simulation");
         Project project = getProject();
         SimulationUtils.runSimulation(
+                getRunnerConnections().get(),
                 project,
                 RunnerConfiguration.RunnerType.Html,
                 SimulationUtils.getRunSimulationTaskEnvVariables(SimulationUtils.getSimulationManifest(project), project)
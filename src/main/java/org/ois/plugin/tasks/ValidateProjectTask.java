@@ -1,24 +1,45 @@
 package org.ois.plugin.tasks;
 
 import org.gradle.api.DefaultTask;
-import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.*;
 import org.ois.core.project.SimulationManifest;
 import org.ois.core.utils.io.data.formats.JsonFormat;
 import org.ois.plugin.utils.SimulationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
- * Validate OIS project requirements task
+ * Validate OIS project requirements task.
+ * The task is up-to-date when the project simulation manifest did not change since its last successful validation.
  */
 public class ValidateProjectTask extends DefaultTask {
     private static final Logger log = LoggerFactory.getLogger(ValidateProjectTask.class);
 
+    /**
+     * The project simulation manifest to validate
+     * @return the 'simulation.ois' file in the project 'simulation' directory
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    public File getSimulationManifestFile() {
+        return SimulationUtils.getProjectSimulationConfigDirectory(getProject()).resolve(SimulationManifest.DEFAULT_FILE_NAME).toFile();
+    }
+
+    /**
+     * A marker file that is written after a successful validation, allowing Gradle to skip the validation of an unchanged manifest
+     * @return the validation marker file
+     */
+    @OutputFile
+    public File getValidationMarkerFile() {
+        return SimulationUtils.getSimulationCacheDirectory(getProject()).resolve("validation").resolve("validated").toFile();
+    }
+
     /**
      * Validate that the project is compatible with OIS requirements to be run as simulation
      */
@@ -30,7 +51,7 @@ public class ValidateProjectTask extends DefaultTask {
             throw new RuntimeException("Can't find 'simulation' directory in the project directory " + getProject().getProjectDir());
         }
         // Check if 'simulation.ois' file exists
-        Path projectSimulationManifestPath = SimulationUtils.getProjectSimulationConfigDirectory(getProject()).resolve(SimulationManifest.DEFAULT_FILE_NAME);
+        Path projectSimulationManifestPath = getSimulationManifestFile().toPath();
         if(!projectSimulationManifestPath.toFile().exists()) {
             throw new RuntimeException("Can't find 'simulation.ois' manifest file at the project 'simulation' directory");
         }
@@ -46,5 +67,6 @@ public class ValidateProjectTask extends DefaultTask {
         if (manifest.getInitialState() == null || !manifest.getStates().containsKey(manifest.getInitialState())) {
             throw new RuntimeException("You must specify a valid 'initialState' attribute in the simulation manifest ('simulation.ois') that is a key in 'states'");
         }
+        Files.writeString(getValidationMarkerFile().toPath(), projectSimulationManifestPath.toString());
     }
 }
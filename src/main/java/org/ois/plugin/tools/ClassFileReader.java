@@ -0,0 +1,94 @@
+package org.ois.plugin.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Reads class headers from class files and jar entries without allocating a new buffer for each class.
+ * Each thread reads into its own reusable buffer that grows to the largest class it has read.
+ * ASM can only parse a byte array, so the content is always copied once into that buffer, but never again.
+ */
+public class ClassFileReader {
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private static final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+    /**
+     * Read the header of a class file
+     * @param classFile - the path to the class file
+     * @return the header of the class
+     * @throws IOException - in case of error when reading the file
+     */
+    public static ClassHeader read(Path classFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(classFile, StandardOpenOption.READ)) {
+            int size = toBufferSize(channel.size(), classFile.toString());
+            byte[] buffer = getBuffer(size);
+            // Read directly into the buffer, a memory mapping is released only by the GC and locks the file on Windows until then
+            ByteBuffer target = ByteBuffer.wrap(buffer, 0, size);
+            while (target.hasRemaining()) {
+                if (channel.read(target) < 0) {
+                    break;
+                }
+            }
+            size = target.position();
+            return ClassHeader.read(buffer, 0, size);
+        }
+    }
+
+    /**
+     * Read the header of a class file entry in a jar
+     * @param jar - the jar that contains the entry
+     * @param entry - the class file entry
+     * @return the header of the class
+     * @throws IOException - in case of error when reading the entry
+     */
+    public static ClassHeader read(JarFile jar, JarEntry entry) throws IOException {
+        // The uncompressed size is known from the jar central directory for stored and deflated entries
+        long entrySize = entry.getSize();
+        byte[] buffer = getBuffer(entrySize < 0 ? INITIAL_BUFFER_SIZE : toBufferSize(entrySize, entry.getName()));
+        int size = 0;
+        try (InputStream in = jar.getInputStream(entry)) {
+            int read;
+            while ((read = in.read(buffer, size, buffer.length - size)) >= 0) {
+                size += read;
+                if (size == buffer.length) {
+                    if (entrySize >= 0) {
+                        break;
+                    }
+                    // Unknown size, grow and keep reading
+                    buffer = getBuffer(buffer.length * 2, buffer, size);
+                }
+            }
+        }
+        return ClassHeader.read(buffer, 0, size);
+    }
+
+    private static int toBufferSize(long size, String name) throws IOException {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("Class file is too large: " + name);
+        }
+        return (int) size;
+    }
+
+    private static byte[] getBuffer(int size) {
+        byte[] buffer = buffers.get();
+        if (buffer.length < size) {
+            buffer = new byte[Math.max(size, buffer.length * 2)];
+            buffers.set(buffer);
+        }
+        return buffer;
+    }
+
+    private static byte[] getBuffer(int size, byte[] content, int contentLength) {
+        byte[] buffer = new byte[size];
+        System.arraycopy(content, 0, buffer, 0, contentLength);
+        buffers.set(buffer);
+        return buffer;
+    }
+}
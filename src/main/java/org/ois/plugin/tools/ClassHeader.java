@@ -0,0 +1,80 @@
+package org.ois.plugin.tools;
+
+import org.objectweb.asm.ClassReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * The hierarchy information of a compiled class: its name, super class name and interface names (all in their full '.' separated form).
+ * The information is read straight from the class file header, without parsing fields, methods, annotations or bytecode.
+ */
+public final class ClassHeader {
+    private static final String[] NO_INTERFACES = new String[0];
+
+    /** The full name of the class **/
+    public final String name;
+    /** The full name of the super class, null if the class has no super class (java.lang.Object, module-info) **/
+    public final String superName;
+    /** The full names of the interfaces the class directly implements **/
+    public final String[] interfaces;
+
+    public ClassHeader(String name, String superName, String[] interfaces) {
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = interfaces == null || interfaces.length == 0 ? NO_INTERFACES : interfaces;
+    }
+
+    /**
+     * Read the header of a given class file content
+     * @param classFile - the class file content
+     * @return the header of the class
+     */
+    public static ClassHeader read(byte[] classFile) {
+        return read(new ClassReader(classFile));
+    }
+
+    /**
+     * Read the header of a class file content that is stored in a region of a given buffer.
+     * The buffer is not referenced after the method returns, so it can be reused.
+     * @param buffer - the buffer that contains the class file content
+     * @param offset - the start offset of the class file content in the buffer
+     * @param length - the length of the class file content
+     * @return the header of the class
+     */
+    public static ClassHeader read(byte[] buffer, int offset, int length) {
+        return read(new ClassReader(buffer, offset, length));
+    }
+
+    /**
+     * Read the header of a class file from a given stream
+     * @param in - stream of the class file content
+     * @return the header of the class
+     * @throws IOException - in case of error when reading the stream
+     */
+    public static ClassHeader read(InputStream in) throws IOException {
+        return read(new ClassReader(in));
+    }
+
+    private static ClassHeader read(ClassReader reader) {
+        String[] interfaces = reader.getInterfaces();
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaces[i] = toFullName(interfaces[i]);
+        }
+        return new ClassHeader(toFullName(reader.getClassName()), toFullName(reader.getSuperName()), interfaces);
+    }
+
+    private static String toFullName(String internalName) {
+        return internalName == null ? null : internalName.replace('/', '.');
+    }
+
+    @Override
+    public String toString() {
+        return "ClassHeader{" +
+                "name='" + name + '\'' +
+                ", superName='" + superName + '\'' +
+                ", interfaces=" + Arrays.toString(interfaces) +
+                '}';
+    }
+}
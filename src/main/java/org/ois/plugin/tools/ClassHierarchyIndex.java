@@ -0,0 +1,274 @@
+package org.ois.plugin.tools;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent index of the class hierarchy information (class name, super name and interfaces) of classpath jars.
+ * Each jar is keyed by its path, size and last modified time, so unchanged jars can be resolved from the index without opening them.
+ * A jar can be fully indexed (all its classes) or partially indexed (its packages and only the classes that were resolved from it).
+ * The index can be queried and updated concurrently, saving it should be done after all the updates are done.
+ */
+public class ClassHierarchyIndex {
+    private static final Logger log = LoggerFactory.getLogger(ClassHierarchyIndex.class);
+    /** Change this value when the index file format changes, old index files will be ignored **/
+    private static final int FORMAT_VERSION = 3;
+
+    private final Path indexFile;
+    private final Map<String, JarRecord> jars = new ConcurrentHashMap<>();
+    /** The jars that were requested in this session, only those will be kept when saving the index **/
+    private final Set<String> usedJars = ConcurrentHashMap.newKeySet();
+    private volatile boolean modified;
+
+    /**
+     * The indexed information of a single jar
+     */
+    private static class JarRecord {
+        private final long size;
+        private final long lastModified;
+        /** The packages that contain classes in the jar **/
+        private final Set<String> packages;
+        /** The indexed classes of the jar, mapped by their full name **/
+        private final Map<String, ClassHeader> classes = new ConcurrentHashMap<>();
+        /** True if all the classes of the jar are indexed **/
+        private final boolean complete;
+
+        private JarRecord(long size, long lastModified, Set<String> packages, boolean complete) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.packages = packages;
+            this.complete = complete;
+        }
+
+        private boolean isValidFor(File jarFile) {
+            return this.size == jarFile.length() && this.lastModified == jarFile.lastModified();
+        }
+    }
+
+    private ClassHierarchyIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Load the index from a given file, if the file does not exist or can't be read an empty index is returned.
+     * @param indexFile - the file that holds the index
+     * @return the loaded index
+     */
+    public static ClassHierarchyIndex load(Path indexFile) {
+        ClassHierarchyIndex index = new ClassHierarchyIndex(indexFile);
+        if (indexFile == null || !indexFile.toFile().exists()) {
+            return index;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                log.debug("Class hierarchy index format changed, ignoring existing index");
+                return index;
+            }
+            int jarCount = in.readInt();
+            for (int i = 0; i < jarCount; i++) {
+                String jarPath = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                boolean complete = in.readBoolean();
+                int packageCount = in.readInt();
+                Set<String> packages = new HashSet<>(packageCount);
+                for (int j = 0; j < packageCount; j++) {
+                    packages.add(in.readUTF());
+                }
+                JarRecord record = new JarRecord(size, lastModified, packages, complete);
+                int classCount = in.readInt();
+                for (int j = 0; j < classCount; j++) {
+                    ClassHeader classHeader = readClass(in);
+                    record.classes.put(classHeader.name, classHeader);
+                }
+                index.jars.put(jarPath, record);
+            }
+            log.debug("Loaded class hierarchy index with {} jars", index.jars.size());
+        } catch (IOException e) {
+            log.debug("Failed to read class hierarchy index, ignoring existing index", e);
+            index.jars.clear();
+        }
+        return index;
+    }
+
+    /**
+     * Get all the classes of a given jar
+     * @param jarFile - the jar to get its classes
+     * @return the indexed classes of the jar, or null if the jar is not fully indexed or changed since it was indexed
+     */
+    public List<ClassHeader> get(File jarFile) {
+        JarRecord record = getRecord(jarFile);
+        if (record == null || !record.complete) {
+            return null;
+        }
+        return new ArrayList<>(record.classes.values());
+    }
+
+    /**
+     * Get the packages that contain classes in a given jar
+     * @param jarFile - the jar to get its packages
+     * @return the indexed packages of the jar, or null if the jar is not indexed or changed since it was indexed
+     */
+    public Set<String> getPackages(File jarFile) {
+        JarRecord record = getRecord(jarFile);
+        return record == null ? null : record.packages;
+    }
+
+    /**
+     * Get a specific class of a given jar
+     * @param jarFile - the jar that contains the class
+     * @param className - the full name of the class
+     * @return the indexed class, or null if the class is not indexed
+     */
+    public ClassHeader getClass(File jarFile, String className) {
+        JarRecord record = getRecord(jarFile);
+        return record == null ? null : record.classes.get(className);
+    }
+
+    /**
+     * Check if all the classes of a given jar are indexed
+     * @param jarFile - the jar to check
+     * @return true if the jar is fully indexed and did not change since it was indexed
+     */
+    public boolean isComplete(File jarFile) {
+        JarRecord record = getRecord(jarFile);
+        return record != null && record.complete;
+    }
+
+    /**
+     * Index all the classes of a given jar
+     * @param jarFile - the jar that contains the classes
+     * @param classes - all the class headers of the jar
+     */
+    public void put(File jarFile, List<ClassHeader> classes) {
+        Set<String> packages = new HashSet<>();
+        for (ClassHeader classHeader : classes) {
+            packages.add(getPackageName(classHeader.name));
+        }
+        JarRecord record = new JarRecord(jarFile.length(), jarFile.lastModified(), packages, true);
+        for (ClassHeader classHeader : classes) {
+            record.classes.put(classHeader.name, classHeader);
+        }
+        putRecord(jarFile, record);
+    }
+
+    /**
+     * Index the packages of a given jar, its classes can be added later with {@link #putClass(File, ClassHeader)}
+     * @param jarFile - the jar that contains the packages
+     * @param packages - the packages that contain classes in the jar
+     */
+    public void putPackages(File jarFile, Set<String> packages) {
+        putRecord(jarFile, new JarRecord(jarFile.length(), jarFile.lastModified(), packages, false));
+    }
+
+    /**
+     * Index a single class of a given jar that its packages are indexed
+     * @param jarFile - the jar that contains the class
+     * @param classHeader - the class header to add
+     */
+    public void putClass(File jarFile, ClassHeader classHeader) {
+        JarRecord record = getRecord(jarFile);
+        if (record == null) {
+            return;
+        }
+        record.classes.put(classHeader.name, classHeader);
+        this.modified = true;
+    }
+
+    /**
+     * Get the package name of a given class
+     * @param className - the full name of the class
+     * @return the full name of the package of the class, empty for the default package
+     */
+    public static String getPackageName(String className) {
+        int lastDot = className.lastIndexOf('.');
+        return lastDot < 0 ? "" : className.substring(0, lastDot);
+    }
+
+    private JarRecord getRecord(File jarFile) {
+        String key = jarFile.getAbsolutePath();
+        this.usedJars.add(key);
+        JarRecord record = this.jars.get(key);
+        if (record == null || !record.isValidFor(jarFile)) {
+            return null;
+        }
+        return record;
+    }
+
+    private void putRecord(File jarFile, JarRecord record) {
+        String key = jarFile.getAbsolutePath();
+        this.usedJars.add(key);
+        this.jars.put(key, record);
+        this.modified = true;
+    }
+
+    /**
+     * Save the index to its file if it was changed, jars that were not used in this session are removed from the index.
+     * @throws IOException - in case of error when writing the index file
+     */
+    public void save() throws IOException {
+        if (this.indexFile == null) {
+            return;
+        }
+        if (this.jars.keySet().retainAll(this.usedJars)) {
+            this.modified = true;
+        }
+        if (!this.modified) {
+            return;
+        }
+        Files.createDirectories(this.indexFile.getParent());
+        Path tempFile = this.indexFile.resolveSibling(this.indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(this.jars.size());
+            for (Map.Entry<String, JarRecord> entry : this.jars.entrySet()) {
+                JarRecord record = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(record.size);
+                out.writeLong(record.lastModified);
+                out.writeBoolean(record.complete);
+                out.writeInt(record.packages.size());
+                for (String packageName : record.packages) {
+                    out.writeUTF(packageName);
+                }
+                List<ClassHeader> classes = new ArrayList<>(record.classes.values());
+                out.writeInt(classes.size());
+                for (ClassHeader classHeader : classes) {
+                    writeClass(out, classHeader);
+                }
+            }
+        }
+        Files.move(tempFile, this.indexFile, StandardCopyOption.REPLACE_EXISTING);
+        this.modified = false;
+        log.debug("Saved class hierarchy index with {} jars", this.jars.size());
+    }
+
+    static ClassHeader readClass(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        String superName = in.readBoolean() ? in.readUTF() : null;
+        String[] interfaces = new String[in.readInt()];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaces[i] = in.readUTF();
+        }
+        return new ClassHeader(name, superName, interfaces);
+    }
+
+    static void writeClass(DataOutputStream out, ClassHeader classHeader) throws IOException {
+        out.writeUTF(classHeader.name);
+        out.writeBoolean(classHeader.superName != null);
+        if (classHeader.superName != null) {
+            out.writeUTF(classHeader.superName);
+        }
+        out.writeInt(classHeader.interfaces.length);
+        for (String iface : classHeader.interfaces) {
+            out.writeUTF(iface);
+        }
+    }
+}
@@ -1,59 +1,155 @@
 package org.ois.plugin.tools;
 
-import org.gradle.api.file.FileCollection;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileInputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 public class ClassImplementationFinder {
     private static final Logger log = LoggerFactory.getLogger(ClassImplementationFinder.class);
 
-    public static Set<String> find(Path projectBuildDirPath, FileCollection classpath, String targetClass) {
+    public static Set<String> find(Path projectBuildDirPath, Iterable<File> classpath, String targetClass) {
+        return find(projectBuildDirPath, classpath, null, targetClass);
+    }
 
-        File classesDir = projectBuildDirPath.resolve("classes").resolve( "java").resolve( "main").toFile();
+    /**
+     * Find all the project classes that implement/extend a given target class.
+     * @param projectBuildDirPath - the project 'build' directory that contains the compiled classes (at 'classes/{language}/main')
+     * @param classpath - the runtime classpath of the project
+     * @param indexFile - optional, the file of the persistent classpath jars index, unchanged jars will be loaded from it
+     * @param targetClass - the full name of the class/interface to find its implementations
+     * @return the full names of the project classes that implement/extend the target class
+     */
+    public static Set<String> find(Path projectBuildDirPath, Iterable<File> classpath, Path indexFile, String targetClass) {
+        return findAll(projectBuildDirPath, classpath, indexFile, Set.of(targetClass)).get(targetClass);
+    }
 
-        Map<String, ClassNode> classNodeCache = new HashMap<>();
-        Set<String> implementations = new HashSet<>();
+    /**
+     * Find all the project classes that implement/extend each of the given target classes,
+     * resolving the classpath classes on demand and reading the classpath jars with a worker for each available processor.
+     * @see #findAll(Path, Iterable, Path, Set, int, boolean)
+     */
+    public static Map<String, Set<String>> findAll(Path projectBuildDirPath, Iterable<File> classpath, Path indexFile, Set<String> targetClasses) {
+        return findAll(projectBuildDirPath, classpath, indexFile, targetClasses, Runtime.getRuntime().availableProcessors(), true);
+    }
 
-        // Load all class files from project and dependencies
-        if (classesDir.exists()) {
-            loadAllClassesFromDirectory(classesDir, classNodeCache);
+    /**
+     * Find all the project classes that implement/extend each of the given target classes.
+     * The project classes and the classpath are loaded once and the hierarchy of each project class is walked once for all the targets.
+     * @param projectBuildDirPath - the project 'build' directory that contains the compiled classes (at 'classes/{language}/main')
+     * @param classpath - the runtime classpath of the project
+     * @param indexFile - optional, the file of the persistent classpath jars index, unchanged jars will be loaded from it
+     * @param targetClasses - the full names of the classes/interfaces to find their implementations
+     * @param scanThreads - the maximum number of classpath jars that are scanned concurrently
+     * @param lazyScan - if true, only the classpath classes that are needed to resolve the project classes hierarchy are loaded.
+     *                 Else, all the classes of the classpath jars are loaded.
+     * @return map of each target class to the (sorted) full names of the project classes that implement/extend it
+     */
+    public static Map<String, Set<String>> findAll(Path projectBuildDirPath, Iterable<File> classpath, Path indexFile, Set<String> targetClasses, int scanThreads, boolean lazyScan) {
+        // Load all class files from the project
+        List<ClassHeader> projectClassHeaders = new ArrayList<>();
+        for (File classesDir : getProjectClassesDirectories(projectBuildDirPath)) {
+            loadAllClassesFromDirectory(classesDir, projectClassHeaders);
         }
-        loadAllClassesFromJars(classpath, classNodeCache);
+        return findAll(projectClassHeaders, classpath, indexFile, targetClasses, scanThreads, lazyScan);
+    }
 
-        // Scan the loaded class nodes
-        scanProjectClasses(targetClass, classesDir, classNodeCache, implementations);
+    /**
+     * Find all the given project classes that implement/extend each of the given target classes.
+     * The classpath is loaded once and the hierarchy of each project class is walked once for all the targets.
+     * @param projectClassHeaders - the headers of the project classes, if a class is given more than once its first header is used
+     * @param classpath - the runtime classpath of the project
+     * @param indexFile - optional, the file of the persistent classpath jars index, unchanged jars will be loaded from it
+     * @param targetClasses - the full names of the classes/interfaces to find their implementations
+     * @param scanThreads - the maximum number of classpath jars that are scanned concurrently
+     * @param lazyScan - if true, only the classpath classes that are needed to resolve the project classes hierarchy are loaded.
+     *                 Else, all the classes of the classpath jars are loaded.
+     * @return map of each target class to the (sorted) full names of the project classes that implement/extend it
+     */
+    public static Map<String, Set<String>> findAll(Collection<ClassHeader> projectClassHeaders, Iterable<File> classpath, Path indexFile, Set<String> targetClasses, int scanThreads, boolean lazyScan) {
+        Map<String, ClassHeader> classHeaderCache = new HashMap<>();
+        // The classes that were given as project classes
+        Set<String> projectClasses = new HashSet<>();
+        Map<String, Set<String>> implementations = new TreeMap<>();
+        for (String targetClass : targetClasses) {
+            implementations.put(targetClass, new TreeSet<>());
+        }
+        for (ClassHeader classHeader : projectClassHeaders) {
+            // Same as the class loader, the first definition of a class takes precedence
+            if (classHeaderCache.putIfAbsent(classHeader.name, classHeader) == null) {
+                projectClasses.add(classHeader.name);
+            }
+        }
+
+        // Load the classpath classes
+        ClassHierarchyIndex index = ClassHierarchyIndex.load(indexFile);
+        if (lazyScan) {
+            try (LazyClasspath lazyClasspath = new LazyClasspath(index, getJarFiles(classpath), scanThreads)) {
+                // Scan the project classes, loading the classpath classes only when they are needed
+                scanProjectClasses(targetClasses, projectClasses, className -> classHeaderCache.computeIfAbsent(className, lazyClasspath::find), implementations);
+            }
+        } else {
+            loadAllClassesFromJars(getJarFiles(classpath), index, classHeaderCache, scanThreads);
+            // Scan the loaded class headers
+            scanProjectClasses(targetClasses, projectClasses, classHeaderCache::get, implementations);
+        }
+        try {
+            index.save();
+        } catch (IOException e) {
+            log.warn("Failed to save classpath index: {}", e.getMessage());
+        }
 
         // Print results
-        log.info(String.format("Classes implementing/extending '%s':", targetClass));
-        implementations.forEach(log::info);
+        for (Map.Entry<String, Set<String>> entry : implementations.entrySet()) {
+            log.info(String.format("Classes implementing/extending '%s':", entry.getKey()));
+            entry.getValue().forEach(log::info);
+        }
 
         return implementations;
     }
 
-    private static void loadAllClassesFromDirectory(File dir, Map<String, ClassNode> classNodeCache) {
+    /**
+     * Get the output directories of the project main classes, for each of the project languages (i.e. 'build/classes/java/main', 'build/classes/kotlin/main')
+     * @param projectBuildDirPath - the project 'build' directory
+     * @return the existing main classes directories of the project
+     */
+    public static List<File> getProjectClassesDirectories(Path projectBuildDirPath) {
+        List<File> classesDirs = new ArrayList<>();
+        File[] languageDirs = projectBuildDirPath.resolve("classes").toFile().listFiles(File::isDirectory);
+        if (languageDirs == null) {
+            return classesDirs;
+        }
+        Arrays.sort(languageDirs);
+        for (File languageDir : languageDirs) {
+            File classesDir = new File(languageDir, "main");
+            if (classesDir.isDirectory()) {
+                classesDirs.add(classesDir);
+            }
+        }
+        return classesDirs;
+    }
+
+    private static void loadAllClassesFromDirectory(File dir, List<ClassHeader> classHeaders) {
         File[] files = dir.listFiles();
         if (files == null) return;
 
         for (File file : files) {
             if (file.isDirectory()) {
-                loadAllClassesFromDirectory(file, classNodeCache);
+                loadAllClassesFromDirectory(file, classHeaders);
             } else if (file.getName().endsWith(".class")) {
-                try (FileInputStream fis = new FileInputStream(file)) {
-                    ClassReader reader = new ClassReader(fis);
-                    ClassNode classNode = new ClassNode();
-                    reader.accept(classNode, 0);
-                    classNodeCache.put(classNode.name.replace("/", "."), classNode);
+                try {
+                    classHeaders.add(ClassFileReader.read(file.toPath()));
                 } catch (Exception e) {
                     log.error(String.format("Failed to read class: %s", file.getName()), e);
                 }
@@ -61,70 +157,266 @@ public class ClassImplementationFinder {
         }
     }
 
-    private static void loadAllClassesFromJars(FileCollection classpath, Map<String, ClassNode> classNodeCache) {
-        for (File jarFile : classpath.getFiles()) {
-            if (jarFile.getName().endsWith(".jar")) {
-                try (JarFile jar = new JarFile(jarFile)) {
-                    Enumeration<JarEntry> entries = jar.entries();
-                    while (entries.hasMoreElements()) {
-                        JarEntry entry = entries.nextElement();
-                        if (entry.getName().endsWith(".class")) {
-                            try (InputStream is = jar.getInputStream(entry)) {
-                                ClassReader reader = new ClassReader(is);
-                                ClassNode classNode = new ClassNode();
-                                reader.accept(classNode, 0);
-                                classNodeCache.put(classNode.name.replace("/", "."), classNode);
-                            }
-                        }
-                    }
-                } catch (IOException e) {
-                    log.error(String.format("Failed to read JAR: %s", jarFile.getName()), e);
-                }
+    private static List<File> getJarFiles(Iterable<File> classpath) {
+        List<File> jarFiles = new ArrayList<>();
+        for (File file : classpath) {
+            if (file.getName().endsWith(".jar")) {
+                jarFiles.add(file);
+            }
+        }
+        return jarFiles;
+    }
+
+    private static void loadAllClassesFromJars(List<File> jarFiles, ClassHierarchyIndex index, Map<String, ClassHeader> classHeaderCache, int scanThreads) {
+        // Unchanged jars are loaded from the index without opening them, the rest are scanned concurrently
+        Map<File, List<ClassHeader>> indexedJars = new HashMap<>();
+        for (File jarFile : jarFiles) {
+            List<ClassHeader> jarClasses = index.get(jarFile);
+            if (jarClasses != null) {
+                indexedJars.put(jarFile, jarClasses);
+            }
+        }
+        Map<File, Future<List<ClassHeader>>> scannedJars = scanJars(jarFiles.stream().filter(jarFile -> !indexedJars.containsKey(jarFile)).toList(), jarFile -> {
+            List<ClassHeader> jarClasses = loadAllClassesFromJar(jarFile);
+            if (jarClasses != null) {
+                index.put(jarFile, jarClasses);
+            }
+            return jarClasses;
+        }, scanThreads);
+        // Merge by classpath order, so the result does not depend on the order the jars were scanned
+        for (File jarFile : jarFiles) {
+            List<ClassHeader> jarClasses = indexedJars.containsKey(jarFile) ? indexedJars.get(jarFile) : getScanResult(jarFile, scannedJars.get(jarFile));
+            if (jarClasses == null) {
+                continue;
+            }
+            for (ClassHeader classHeader : jarClasses) {
+                // Same as the class loader, the first definition of a class takes precedence
+                classHeaderCache.putIfAbsent(classHeader.name, classHeader);
             }
         }
     }
 
-    private static void scanProjectClasses(String targetClass, File classesDir, Map<String, ClassNode> classNodeCache, Set<String> implementations) {
-        scanClasses(targetClass, classNodeCache, implementations, classesDir);
+    private static <T> Map<File, Future<T>> scanJars(List<File> jarFiles, Function<File, T> jarScanner, int scanThreads) {
+        Map<File, Future<T>> scannedJars = new HashMap<>();
+        if (jarFiles.isEmpty()) {
+            return scannedJars;
+        }
+        int workers = Math.min(Math.max(scanThreads, 1), jarFiles.size());
+        log.debug("Scanning {} classpath jars using {} workers", jarFiles.size(), workers);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for (File jarFile : jarFiles) {
+                scannedJars.put(jarFile, executor.submit(() -> jarScanner.apply(jarFile)));
+            }
+            // Wait for all the jars before returning, so the index is complete when saved
+            for (File jarFile : jarFiles) {
+                getScanResult(jarFile, scannedJars.get(jarFile));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return scannedJars;
     }
 
-    private static void scanClasses(String targetClass, Map<String, ClassNode> classNodeCache, Set<String> implementations, File classesDir) {
-        for (Map.Entry<String, ClassNode> entry : classNodeCache.entrySet()) {
-            String className = entry.getKey();
-            ClassNode classNode = entry.getValue();
+    private static <T> T getScanResult(File jarFile, Future<T> scanResult) {
+        try {
+            return scanResult.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while scanning JAR: " + jarFile.getName(), e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to scan JAR: " + jarFile.getName(), e.getCause());
+        }
+    }
 
-            if (isProjectClass(className, classesDir) && isSubclassOrImplements(classNode, targetClass, classNodeCache)) {
-                implementations.add(className);
+    private static List<ClassHeader> loadAllClassesFromJar(File jarFile) {
+        List<ClassHeader> jarClasses = new ArrayList<>();
+        try (JarFile jar = new JarFile(jarFile)) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.getName().endsWith(".class")) {
+                    jarClasses.add(ClassFileReader.read(jar, entry));
+                }
             }
+        } catch (IOException e) {
+            log.error(String.format("Failed to read JAR: %s", jarFile.getName()), e);
+            return null;
         }
+        return jarClasses;
     }
 
-    private static boolean isProjectClass(String className, File classesDir) {
-        File classFile = new File(classesDir, className.replace(".", "/") + ".class");
-        return classFile.exists();
+    private static void scanProjectClasses(Set<String> targetClasses, Set<String> projectClasses, Function<String, ClassHeader> classLookup, Map<String, Set<String>> implementations) {
+        // Resolved targets of each visited class, shared between all the project classes so common super types are walked once
+        Map<String, Set<String>> resolvedTargets = new HashMap<>();
+        for (String className : projectClasses) {
+            for (String targetClass : resolveImplementedTargets(className, targetClasses, classLookup, resolvedTargets)) {
+                implementations.get(targetClass).add(className);
+            }
+        }
+    }
+
+    /**
+     * Resolve the target classes that a given class implements/extends (directly or by its super types).
+     * The hierarchy is walked iteratively and each visited class result is memoized, so every class is resolved only once.
+     */
+    private static Set<String> resolveImplementedTargets(String className, Set<String> targetClasses, Function<String, ClassHeader> classLookup, Map<String, Set<String>> resolvedTargets) {
+        Deque<String> toResolve = new ArrayDeque<>();
+        // Classes that their super types are being resolved, used to detect (invalid) cyclic hierarchies
+        Set<String> inProgress = new HashSet<>();
+        toResolve.push(className);
+        while (!toResolve.isEmpty()) {
+            String current = toResolve.peek();
+            if (resolvedTargets.containsKey(current)) {
+                toResolve.pop();
+                continue;
+            }
+            ClassHeader classHeader = classLookup.apply(current);
+            if (classHeader == null) {
+                // Not in the classpath (i.e. JDK classes), nothing to resolve
+                resolvedTargets.put(current, Collections.emptySet());
+                toResolve.pop();
+                continue;
+            }
+            if (inProgress.add(current)) {
+                // First visit, resolve the super types before the class itself
+                pushUnresolved(classHeader.superName, resolvedTargets, inProgress, toResolve);
+                for (String iface : classHeader.interfaces) {
+                    pushUnresolved(iface, resolvedTargets, inProgress, toResolve);
+                }
+                continue;
+            }
+            // All the super types are resolved
+            Set<String> implementedTargets = new HashSet<>();
+            collectTargets(classHeader.superName, targetClasses, resolvedTargets, implementedTargets);
+            for (String iface : classHeader.interfaces) {
+                collectTargets(iface, targetClasses, resolvedTargets, implementedTargets);
+            }
+            resolvedTargets.put(current, implementedTargets.isEmpty() ? Collections.emptySet() : implementedTargets);
+            inProgress.remove(current);
+            toResolve.pop();
+        }
+        return resolvedTargets.get(className);
     }
 
-    private static boolean isSubclassOrImplements(ClassNode classNode, String targetClass, Map<String, ClassNode> classNodeCache) {
-        if (classNode == null) return false;
+    private static void pushUnresolved(String superType, Map<String, Set<String>> resolvedTargets, Set<String> inProgress, Deque<String> toResolve) {
+        if (superType != null && !resolvedTargets.containsKey(superType) && !inProgress.contains(superType)) {
+            toResolve.push(superType);
+        }
+    }
 
-        // Check superclass recursively
-        if (classNode.superName != null) {
-            String superName = classNode.superName.replace("/", ".");
-            if (superName.equals(targetClass) || isSubclassOrImplements(classNodeCache.get(superName), targetClass, classNodeCache)) {
-                return true;
+    private static void collectTargets(String superType, Set<String> targetClasses, Map<String, Set<String>> resolvedTargets, Set<String> implementedTargets) {
+        if (superType == null) {
+            return;
+        }
+        if (targetClasses.contains(superType)) {
+            implementedTargets.add(superType);
+        }
+        implementedTargets.addAll(resolvedTargets.getOrDefault(superType, Collections.emptySet()));
+    }
+
+    /**
+     * Resolves classpath classes on demand.
+     * Only the jars central directories are read (or loaded from the index) to map each package to the jars that contain it,
+     * the class files are read only when a class is requested.
+     */
+    private static class LazyClasspath implements Closeable {
+        private final ClassHierarchyIndex index;
+        private final Map<String, List<File>> packageJars = new HashMap<>();
+        private final Map<File, JarFile> openJars = new HashMap<>();
+
+        private LazyClasspath(ClassHierarchyIndex index, List<File> jarFiles, int scanThreads) {
+            this.index = index;
+            // Unchanged jars packages are loaded from the index without opening them, the rest are listed concurrently
+            Map<File, Future<Set<String>>> listedJars = scanJars(jarFiles.stream().filter(jarFile -> index.getPackages(jarFile) == null).toList(), jarFile -> {
+                Set<String> packages = listJarPackages(jarFile);
+                if (packages != null) {
+                    index.putPackages(jarFile, packages);
+                }
+                return packages;
+            }, scanThreads);
+            // Map by classpath order, so the first jar that defines a class takes precedence
+            for (File jarFile : jarFiles) {
+                Set<String> packages = listedJars.containsKey(jarFile) ? getScanResult(jarFile, listedJars.get(jarFile)) : index.getPackages(jarFile);
+                if (packages == null) {
+                    continue;
+                }
+                for (String packageName : packages) {
+                    this.packageJars.computeIfAbsent(packageName, name -> new ArrayList<>()).add(jarFile);
+                }
             }
         }
 
-        // Check interfaces recursively
-        if (classNode.interfaces != null) {
-            for (String iface : classNode.interfaces) {
-                String ifaceName = iface.replace("/", ".");
-                if (ifaceName.equals(targetClass) || isSubclassOrImplements(classNodeCache.get(ifaceName), targetClass, classNodeCache)) {
-                    return true;
+        /**
+         * Find a class in the classpath
+         * @param className - the full name of the class
+         * @return the class header, or null if the class is not in the classpath jars
+         */
+        private ClassHeader find(String className) {
+            for (File jarFile : this.packageJars.getOrDefault(ClassHierarchyIndex.getPackageName(className), Collections.emptyList())) {
+                ClassHeader classHeader = this.index.getClass(jarFile, className);
+                if (classHeader != null) {
+                    return classHeader;
+                }
+                if (this.index.isComplete(jarFile)) {
+                    // All the jar classes are indexed, the class is not in this jar
+                    continue;
+                }
+                classHeader = readClass(jarFile, className);
+                if (classHeader != null) {
+                    this.index.putClass(jarFile, classHeader);
+                    return classHeader;
                 }
             }
+            return null;
         }
 
-        return false;
+        private ClassHeader readClass(File jarFile, String className) {
+            try {
+                JarFile jar = this.openJars.get(jarFile);
+                if (jar == null) {
+                    jar = new JarFile(jarFile);
+                    this.openJars.put(jarFile, jar);
+                }
+                JarEntry entry = jar.getJarEntry(className.replace('.', '/') + ".class");
+                if (entry == null) {
+                    return null;
+                }
+                return ClassFileReader.read(jar, entry);
+            } catch (IOException e) {
+                log.error(String.format("Failed to read class %s from JAR: %s", className, jarFile.getName()), e);
+                return null;
+            }
+        }
+
+        private static Set<String> listJarPackages(File jarFile) {
+            Set<String> packages = new HashSet<>();
+            try (JarFile jar = new JarFile(jarFile)) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String entryName = entries.nextElement().getName();
+                    if (entryName.endsWith(".class")) {
+                        int lastSlash = entryName.lastIndexOf('/');
+                        packages.add(lastSlash < 0 ? "" : entryName.substring(0, lastSlash).replace('/', '.'));
+                    }
+                }
+            } catch (IOException e) {
+                log.error(String.format("Failed to read JAR: %s", jarFile.getName()), e);
+                return null;
+            }
+            return packages;
+        }
+
+        @Override
+        public void close() {
+            for (JarFile jar : this.openJars.values()) {
+                try {
+                    jar.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close JAR: {}", jar.getName(), e);
+                }
+            }
+            this.openJars.clear();
+        }
     }
 }
@@ -0,0 +1,522 @@
+package org.ois.plugin.tools;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Synchronize the content of source directories into a target directory, copying only the files that changed since the last sync.
+ * The state of each synchronized file (size and modified time of the source and the copy) is kept in a persistent manifest.
+ * A file with the same size and a different modified time is compared by its content before copying it.
+ * Files that were synchronized before and no longer exist in the sources are deleted from the target, other files in the target are not touched.
+ * Without a manifest (the first sync, or after the caches were cleaned) the target files that are not in the sources are deleted, except in the excluded directories,
+ * so files that were staged before the manifest existed do not stay in the target.
+ * In {@link StagingMode#Link} mode the target files are hard links to the source files, so staging does not duplicate the content.
+ * The files that need to be copied are copied concurrently by a bounded number of I/O workers, the largest files first.
+ */
+public class DirectorySynchronizer {
+    private static final Logger log = LoggerFactory.getLogger(DirectorySynchronizer.class);
+    /** Change this value when the manifest file format changes, old manifest files will be ignored **/
+    private static final int FORMAT_VERSION = 1;
+    /** Files smaller than this are copied in batches by a single worker, submitting each of them costs more than copying it **/
+    private static final long SMALL_FILE_SIZE = 1024 * 1024;
+    /** The maximum total size of a batch of small files **/
+    private static final long SMALL_FILES_BATCH_SIZE = 8 * 1024 * 1024;
+
+    private final Path targetDirectory;
+    private final Path manifestFile;
+    private final StagingMode stagingMode;
+    private final int ioThreads;
+
+    /**
+     * How the source files are staged in the target directory
+     */
+    public enum StagingMode {
+        /** Copy the content of the source files **/
+        Copy,
+        /**
+         * Hard link the target files to the source files, falls back to copy if the file system does not support links between the directories.
+         * The staged files share their content with the sources, so they must not be modified.
+         */
+        Link
+    }
+
+    /**
+     * A file in the sources, with the attributes that were read when the sources were walked
+     */
+    private static class SourceFile {
+        private final Path path;
+        private final long size;
+        private final long modifiedTime;
+
+        private SourceFile(Path path, BasicFileAttributes attributes) {
+            this.path = path;
+            this.size = attributes.size();
+            this.modifiedTime = attributes.lastModifiedTime().toMillis();
+        }
+    }
+
+    /**
+     * A file that needs to be copied to the target
+     */
+    private static class CopyJob {
+        private final String relativePath;
+        private final SourceFile source;
+        private final Path target;
+
+        private CopyJob(String relativePath, SourceFile source, Path target) {
+            this.relativePath = relativePath;
+            this.source = source;
+            this.target = target;
+        }
+    }
+
+    /**
+     * The state of a synchronized file, at the time it was synchronized
+     */
+    private static class FileState {
+        /** The size of the source (and the target) file **/
+        private final long size;
+        private final long sourceModifiedTime;
+        private final long targetModifiedTime;
+
+        private FileState(long size, long sourceModifiedTime, long targetModifiedTime) {
+            this.size = size;
+            this.sourceModifiedTime = sourceModifiedTime;
+            this.targetModifiedTime = targetModifiedTime;
+        }
+    }
+
+    /**
+     * The summary of a synchronization
+     */
+    public static class Result {
+        /** The number of files that were copied to the target **/
+        public final int copied;
+        /** The number of files that were linked to the target **/
+        public final int linked;
+        /** The number of files that were deleted from the target **/
+        public final int deleted;
+        /** The number of files that were already synchronized **/
+        public final int unchanged;
+
+        private Result(int copied, int linked, int deleted, int unchanged) {
+            this.copied = copied;
+            this.linked = linked;
+            this.deleted = deleted;
+            this.unchanged = unchanged;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d copied, %d linked, %d deleted, %d unchanged", this.copied, this.linked, this.deleted, this.unchanged);
+        }
+    }
+
+    /**
+     * Create a synchronizer for a target directory that copies the source files
+     * @param targetDirectory - the directory to synchronize the sources into
+     * @param manifestFile - the file that holds the state of the synchronized files between syncs
+     */
+    public DirectorySynchronizer(Path targetDirectory, Path manifestFile) {
+        this(targetDirectory, manifestFile, StagingMode.Copy);
+    }
+
+    /**
+     * Create a synchronizer for a target directory
+     * @param targetDirectory - the directory to synchronize the sources into
+     * @param manifestFile - the file that holds the state of the synchronized files between syncs
+     * @param stagingMode - how the source files are staged in the target directory
+     */
+    public DirectorySynchronizer(Path targetDirectory, Path manifestFile, StagingMode stagingMode) {
+        this(targetDirectory, manifestFile, stagingMode, 1);
+    }
+
+    /**
+     * Create a synchronizer for a target directory
+     * @param targetDirectory - the directory to synchronize the sources into
+     * @param manifestFile - the file that holds the state of the synchronized files between syncs
+     * @param stagingMode - how the source files are staged in the target directory
+     * @param ioThreads - the maximum number of files that are copied concurrently
+     */
+    public DirectorySynchronizer(Path targetDirectory, Path manifestFile, StagingMode stagingMode, int ioThreads) {
+        this.targetDirectory = targetDirectory;
+        this.manifestFile = manifestFile;
+        this.stagingMode = stagingMode;
+        this.ioThreads = Math.max(ioThreads, 1);
+    }
+
+    /**
+     * Synchronize the content of the given source directories into the target directory.
+     * If a file exists in more than one source, the file from the last source is used.
+     * @param sourceDirectories - the directories to synchronize, directories that do not exist are ignored
+     * @return the summary of the synchronization
+     * @throws IOException - in case of error when reading the sources or writing the target
+     */
+    public Result sync(List<Path> sourceDirectories) throws IOException {
+        return sync(sourceDirectories, Set.of());
+    }
+
+    /**
+     * Synchronize the content of the given source directories into the target directory, skipping the excluded directories.
+     * The excluded directories in the target (i.e. build outputs of a runner) are not touched.
+     * If a file exists in more than one source, the file from the last source is used.
+     * @param sourceDirectories - the directories to synchronize, directories that do not exist are ignored
+     * @param excludedDirectoryNames - the names of the directories (at any depth) to skip (i.e. '.git', 'build')
+     * @return the summary of the synchronization
+     * @throws IOException - in case of error when reading the sources or writing the target
+     */
+    public Result sync(List<Path> sourceDirectories, Set<String> excludedDirectoryNames) throws IOException {
+        Map<String, SourceFile> sourceFiles = collectSourceFiles(sourceDirectories, excludedDirectoryNames);
+        Map<String, FileState> previousStates = loadManifest();
+        boolean firstSync = previousStates == null;
+        if (firstSync) {
+            previousStates = Map.of();
+        }
+        Map<String, FileState> states = new TreeMap<>();
+        List<CopyJob> copyJobs = new ArrayList<>();
+        int linked = 0;
+        int unchanged = 0;
+        boolean link = StagingMode.Link.equals(this.stagingMode);
+        for (Map.Entry<String, SourceFile> entry : sourceFiles.entrySet()) {
+            SourceFile source = entry.getValue();
+            Path target = this.targetDirectory.resolve(entry.getKey());
+            FileState state = null;
+            if (link) {
+                if (Files.isRegularFile(target) && Files.isSameFile(source.path, target)) {
+                    // Already linked, the target is the source
+                    state = new FileState(source.size, source.modifiedTime, source.modifiedTime);
+                    unchanged++;
+                } else if (createLink(source.path, target)) {
+                    state = new FileState(source.size, source.modifiedTime, source.modifiedTime);
+                    linked++;
+                } else {
+                    // The file system refused, copy the rest of the files
+                    link = false;
+                }
+            }
+            if (state == null) {
+                state = getSynchronizedState(source, target, previousStates.get(entry.getKey()));
+                if (state == null) {
+                    copyJobs.add(new CopyJob(entry.getKey(), source, target));
+                    continue;
+                }
+                unchanged++;
+            }
+            states.put(entry.getKey(), state);
+        }
+        states.putAll(copyFiles(copyJobs));
+        int deleted = firstSync ? deleteUnknownFiles(states.keySet(), excludedDirectoryNames) : deleteRemovedFiles(previousStates.keySet(), states.keySet());
+        saveManifest(states);
+        Result result = new Result(copyJobs.size(), linked, deleted, unchanged);
+        log.debug("Synchronized '{}': {}", this.targetDirectory, result);
+        return result;
+    }
+
+    /**
+     * Check that the files of the last synchronization still exist in the target directory, without reading the sources.
+     * The content of the files is not checked, a file that was replaced (i.e. a generated runner configuration) is still synchronized.
+     * @return true if the target was synchronized and none of its synchronized files were removed, false otherwise
+     */
+    public boolean isSynchronized() {
+        Map<String, FileState> states = loadManifest();
+        if (states == null) {
+            return false;
+        }
+        for (String relativePath : states.keySet()) {
+            if (!Files.isRegularFile(this.targetDirectory.resolve(relativePath))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy the given files to the target, using up to 'ioThreads' concurrent workers.
+     * The largest files are submitted first, so they don't end up as the tail of the copy, the small files are copied in batches.
+     * @return the states of the copied files, mapped by their relative path
+     */
+    private Map<String, FileState> copyFiles(List<CopyJob> copyJobs) throws IOException {
+        Map<String, FileState> states = new HashMap<>();
+        List<List<CopyJob>> batches = toBatches(copyJobs);
+        int workers = Math.min(this.ioThreads, batches.size());
+        if (workers <= 1) {
+            for (List<CopyJob> batch : batches) {
+                states.putAll(copyBatch(batch));
+            }
+            return states;
+        }
+        log.debug("Copying {} files using {} workers", copyJobs.size(), workers);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Map<String, FileState>>> copiedBatches = new ArrayList<>();
+            for (List<CopyJob> batch : batches) {
+                copiedBatches.add(executor.submit(() -> copyBatch(batch)));
+            }
+            for (Future<Map<String, FileState>> copiedBatch : copiedBatches) {
+                states.putAll(getCopyResult(copiedBatch));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return states;
+    }
+
+    private static List<List<CopyJob>> toBatches(List<CopyJob> copyJobs) {
+        List<CopyJob> sortedJobs = new ArrayList<>(copyJobs);
+        sortedJobs.sort(Comparator.comparingLong((CopyJob job) -> job.source.size).reversed());
+        List<List<CopyJob>> batches = new ArrayList<>();
+        List<CopyJob> smallFilesBatch = new ArrayList<>();
+        long smallFilesBatchSize = 0;
+        for (CopyJob job : sortedJobs) {
+            if (job.source.size >= SMALL_FILE_SIZE) {
+                batches.add(List.of(job));
+                continue;
+            }
+            if (smallFilesBatchSize + job.source.size > SMALL_FILES_BATCH_SIZE && !smallFilesBatch.isEmpty()) {
+                batches.add(smallFilesBatch);
+                smallFilesBatch = new ArrayList<>();
+                smallFilesBatchSize = 0;
+            }
+            smallFilesBatch.add(job);
+            smallFilesBatchSize += job.source.size;
+        }
+        if (!smallFilesBatch.isEmpty()) {
+            batches.add(smallFilesBatch);
+        }
+        return batches;
+    }
+
+    private static Map<String, FileState> copyBatch(List<CopyJob> batch) throws IOException {
+        Map<String, FileState> states = new HashMap<>();
+        for (CopyJob job : batch) {
+            copyFile(job.source.path, job.target);
+            states.put(job.relativePath, new FileState(job.source.size, job.source.modifiedTime, Files.getLastModifiedTime(job.target).toMillis()));
+        }
+        return states;
+    }
+
+    private static Map<String, FileState> getCopyResult(Future<Map<String, FileState>> copiedBatch) throws IOException {
+        try {
+            return copiedBatch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while copying files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to copy files", e.getCause());
+        }
+    }
+
+    /**
+     * Copy the content of a file, letting the OS transfer the bytes between the files (without copying them to the heap) when it can.
+     */
+    private static void copyFile(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        if (Files.isRegularFile(target) && Files.isSameFile(source, target)) {
+            // Staged as a link before, break the link instead of copying the file onto itself
+            Files.delete(target);
+        }
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    /**
+     * Replace the target file with a hard link to the source file.
+     * The link is created next to the target and moved over it, so the target is not lost if the link can't be created.
+     * @return true if the link was created, false if the file system does not support it
+     */
+    private static boolean createLink(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tempLink = target.resolveSibling(target.getFileName() + ".link");
+        try {
+            Files.deleteIfExists(tempLink);
+            Files.createLink(tempLink, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("Can't link '{}' to '{}', falling back to copy: {}", target, source, e.getMessage());
+            return false;
+        }
+        Files.move(tempLink, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    private Map<String, SourceFile> collectSourceFiles(List<Path> sourceDirectories, Set<String> excludedDirectoryNames) throws IOException {
+        Map<String, SourceFile> sourceFiles = new TreeMap<>();
+        for (Path sourceDirectory : sourceDirectories) {
+            if (!Files.isDirectory(sourceDirectory)) {
+                continue;
+            }
+            Files.walkFileTree(sourceDirectory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                    if (!directory.equals(sourceDirectory) && excludedDirectoryNames.contains(directory.getFileName().toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile()) {
+                        sourceFiles.put(toRelativePath(sourceDirectory, file), new SourceFile(file, attributes));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        return sourceFiles;
+    }
+
+    /**
+     * Get the state of a target file if it is synchronized with its source
+     * @return the (updated) state of the file, or null if the file needs to be copied
+     */
+    private static FileState getSynchronizedState(SourceFile source, Path target, FileState previousState) throws IOException {
+        if (!Files.isRegularFile(target)) {
+            return null;
+        }
+        long targetSize = Files.size(target);
+        long targetModifiedTime = Files.getLastModifiedTime(target).toMillis();
+        long sourceModifiedTime = source.modifiedTime;
+        if (targetSize != source.size) {
+            return null;
+        }
+        if (previousState != null && previousState.size == targetSize
+                && previousState.sourceModifiedTime == sourceModifiedTime && previousState.targetModifiedTime == targetModifiedTime) {
+            // A linked file has the modified time of its source, it needs to be copied when staging changes to copy
+            return previousState.targetModifiedTime == previousState.sourceModifiedTime && Files.isSameFile(source.path, target) ? null : previousState;
+        }
+        // Same size but touched (or never synchronized), compare the content
+        if (Files.isSameFile(source.path, target) || Files.mismatch(source.path, target) != -1) {
+            return null;
+        }
+        return new FileState(targetSize, sourceModifiedTime, targetModifiedTime);
+    }
+
+    private int deleteRemovedFiles(Set<String> previousFiles, Set<String> currentFiles) throws IOException {
+        int deleted = 0;
+        for (String relativePath : previousFiles) {
+            if (currentFiles.contains(relativePath)) {
+                continue;
+            }
+            Path target = this.targetDirectory.resolve(relativePath);
+            if (Files.deleteIfExists(target)) {
+                deleted++;
+                deleteEmptyParents(target.getParent());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete the target files that are not synchronized, the state of the target is unknown without a manifest
+     */
+    private int deleteUnknownFiles(Set<String> currentFiles, Set<String> excludedDirectoryNames) throws IOException {
+        if (!Files.isDirectory(this.targetDirectory)) {
+            return 0;
+        }
+        int[] deleted = {0};
+        Files.walkFileTree(this.targetDirectory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                if (!directory.equals(targetDirectory) && excludedDirectoryNames.contains(directory.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (!attributes.isDirectory() && !currentFiles.contains(toRelativePath(targetDirectory, file))) {
+                    Files.delete(file);
+                    deleted[0]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                deleteEmptyParents(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return deleted[0];
+    }
+
+    private void deleteEmptyParents(Path directory) throws IOException {
+        while (directory != null && directory.startsWith(this.targetDirectory) && !directory.equals(this.targetDirectory)) {
+            try (DirectoryStream<Path> content = Files.newDirectoryStream(directory)) {
+                if (content.iterator().hasNext()) {
+                    return;
+                }
+            }
+            Files.delete(directory);
+            directory = directory.getParent();
+        }
+    }
+
+    private static String toRelativePath(Path directory, Path file) {
+        return directory.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Load the states of the files of the last synchronization
+     * @return the states mapped by their relative path, or null if there is no (readable) manifest
+     */
+    private Map<String, FileState> loadManifest() {
+        if (!this.manifestFile.toFile().exists()) {
+            return null;
+        }
+        Map<String, FileState> states = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.manifestFile)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                log.debug("Sync manifest format changed, ignoring existing manifest");
+                return null;
+            }
+            int fileCount = in.readInt();
+            for (int i = 0; i < fileCount; i++) {
+                states.put(in.readUTF(), new FileState(in.readLong(), in.readLong(), in.readLong()));
+            }
+        } catch (IOException e) {
+            log.debug("Failed to read sync manifest, ignoring existing manifest", e);
+            return null;
+        }
+        return states;
+    }
+
+    private void saveManifest(Map<String, FileState> states) throws IOException {
+        Files.createDirectories(this.manifestFile.getParent());
+        Path tempFile = this.manifestFile.resolveSibling(this.manifestFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(states.size());
+            for (Map.Entry<String, FileState> entry : states.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().size);
+                out.writeLong(entry.getValue().sourceModifiedTime);
+                out.writeLong(entry.getValue().targetModifiedTime);
+            }
+        }
+        Files.move(tempFile, this.manifestFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
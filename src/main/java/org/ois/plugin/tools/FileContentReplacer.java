@@ -1,6 +1,6 @@
 package org.ois.plugin.tools;
 
-import java.util.Map;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -102,6 +102,77 @@ public class FileContentReplacer {
         }
     }
 
+    /**
+     * A replacer that is compiled once for a set of attribute names: all the attributes are matched by a single alternation pattern,
+     * and the content is rewritten in a single scan, instead of matching every attribute against every line.
+     */
+    public abstract static class CompiledReplacer {
+        private final Pattern pattern;
+        private final Set<String> attributeNames;
+
+        protected CompiledReplacer(Pattern pattern, Collection<String> attributeNames) {
+            this.pattern = pattern;
+            this.attributeNames = new LinkedHashSet<>(attributeNames);
+        }
+
+        /**
+         * Replace the values of the attributes in a given content.
+         * @param source the content to replace
+         * @param attributeMap the variable names as written at the content mapped to their new values, must contain all the compiled attribute names
+         * @return the updated content after replacing the values. will throw exception on attribute key that not exists in content
+         */
+        public String replace(String source, Map<String, Object> attributeMap) {
+            if (this.attributeNames.isEmpty()) {
+                return source;
+            }
+            Set<String> notReplaced = new LinkedHashSet<>(this.attributeNames);
+            StringBuilder updatedContent = new StringBuilder(source.length() + this.attributeNames.size() * 16);
+            Matcher matcher = this.pattern.matcher(source);
+            int copiedUntil = 0;
+            while (matcher.find()) {
+                String attributeName = getAttributeName(matcher);
+                updatedContent.append(source, copiedUntil, matcher.start());
+                appendReplacement(updatedContent, matcher, attributeName, attributeMap.get(attributeName));
+                copiedUntil = matcher.end();
+                notReplaced.remove(attributeName);
+            }
+            updatedContent.append(source, copiedUntil, source.length());
+            if (!notReplaced.isEmpty()) {
+                throw new IllegalArgumentException("The following attributes were not found in the file content: " + String.join(", ", notReplaced));
+            }
+            return updatedContent.toString();
+        }
+
+        /**
+         * Get the name of the attribute that a given match found
+         * @param matcher the matcher, positioned at the match
+         * @return the name of the matched attribute
+         */
+        protected abstract String getAttributeName(Matcher matcher);
+
+        /**
+         * Append the replacement of the current match to the updated content
+         * @param updatedContent the content to append to
+         * @param matcher the matcher, positioned at the match
+         * @param attributeName the name of the matched attribute
+         * @param value the new value of the attribute
+         */
+        protected abstract void appendReplacement(StringBuilder updatedContent, Matcher matcher, String attributeName, Object value);
+
+        /**
+         * Build an alternation of the given attribute names, to be used as a group in a pattern
+         * @param attributeNames the attribute names to match
+         * @return the alternation regex of the quoted names
+         */
+        protected static String toAlternation(Collection<String> attributeNames) {
+            StringJoiner alternation = new StringJoiner("|");
+            for (String attributeName : attributeNames) {
+                alternation.add(Pattern.quote(attributeName));
+            }
+            return alternation.toString();
+        }
+    }
+
     public static class Java {
 
         /**
@@ -112,26 +183,29 @@ public class FileContentReplacer {
          * @return - the updated content after replacing the values. will throw exception on attribute key that not exists in content
          */
         public static String replaceJavaStaticFinalVals(String source, Map<String, Object> attributeMap) {
-            return replaceContent(source, attributeMap, Java::replaceStaticFinalAttribute);
+            return compile(attributeMap.keySet()).replace(source, attributeMap);
         }
 
         /**
-         * Replaces the attribute's value in a given line if it matches.
-         * @param line The line of code being examined.
-         * @param attributeName The name of the attribute to update.
-         * @param newValue The new value for the attribute.
-         * @return The modified line with the new attribute value, or null if no match.
+         * Compile a replacer for the static final variables with the given names.
+         * The replacer can be reused to replace the values of the same variables in different contents.
+         * @param attributeNames - the variable names as written at the content
+         * @return the compiled replacer
          */
-        private static String replaceStaticFinalAttribute(String line, String attributeName, Object newValue) {
-            String replacementValue = formatReplacementValue(newValue);
-            String regex = String.format("public\\s+static\\s+final\\s+\\w+(\\[\\])?\\s+%s\\s*=\\s*[^;]+;", attributeName);
-            Pattern pattern = Pattern.compile(regex);
-            Matcher matcher = pattern.matcher(line.trim());
-
-            if (matcher.find()) {
-                return line.replaceFirst("=\\s*[^;]+;", "= " + replacementValue + ";");
-            }
-            return null;
+        public static CompiledReplacer compile(Collection<String> attributeNames) {
+            // Matches a declaration of one of the variables in a single line: 'public static final <type>[] <name> = <value>;'
+            Pattern pattern = Pattern.compile("(public[^\\S\\n]+static[^\\S\\n]+final[^\\S\\n]+\\w+(?:\\[\\])?[^\\S\\n]+(?<name>" + CompiledReplacer.toAlternation(attributeNames) + ")[^\\S\\n]*)=[^;\\n]+;");
+            return new CompiledReplacer(pattern, attributeNames) {
+                @Override
+                protected String getAttributeName(Matcher matcher) {
+                    return matcher.group("name");
+                }
+
+                @Override
+                protected void appendReplacement(StringBuilder updatedContent, Matcher matcher, String attributeName, Object value) {
+                    updatedContent.append(matcher.group(1)).append("= ").append(formatReplacementValue(value)).append(';');
+                }
+            };
         }
 
         /**
@@ -168,36 +242,37 @@ public class FileContentReplacer {
          * @return The updated content after replacing the values
          */
         public static String replaceXmlAttributes(String source, Map<String, Object> attributeMap) {
-            return replaceContent(source, attributeMap, Xml::replaceXmlAttributeOrElementContent);
+            return compile(attributeMap.keySet()).replace(source, attributeMap);
         }
 
         /**
-         * Replaces the attribute's value or inner content in a given line if it matches.
-         * @param line The line of XML being examined.
-         * @param attributeName The name of the attribute to update (e.g., "name", "android:icon").
-         * @param newValue The new value for the attribute or element content.
-         * @return The modified line with the new attribute value or element content, or null if no match.
+         * Compile a replacer for the XML attributes or named elements (e.g., <string name="app_name">...</string>) with the given names.
+         * The replacer can be reused to replace the values of the same attributes in different contents.
+         * @param attributeNames The attribute names (e.g., "name", "android:icon") or element 'name' attribute values to replace
+         * @return the compiled replacer
          */
-        private static String replaceXmlAttributeOrElementContent(String line, String attributeName, Object newValue) {
-            String replacementValue = newValue.toString();
-
-            // 1. Try to replace attribute value (e.g., android:icon="...")
-            String attributeRegex = "(\\s" + Pattern.quote(attributeName) + "=\")([^\"]*)(\")";
-            Pattern attributePattern = Pattern.compile(attributeRegex);
-            Matcher attributeMatcher = attributePattern.matcher(line);
-            if (attributeMatcher.find()) {
-                return attributeMatcher.replaceFirst("$1" + replacementValue + "$3");
-            }
-
-            // 2. Try to replace element content based on 'name' attribute (e.g., <string name="app_name">...</string>)
-            String elementContentRegex = "<(\\w+)\\s+name=\"" + Pattern.quote(attributeName) + "\"\\s*>[^<]*</\\1>";
-            Pattern elementContentPattern = Pattern.compile(elementContentRegex);
-            Matcher elementContentMatcher = elementContentPattern.matcher(line);
-            if (elementContentMatcher.find()) {
-                return elementContentMatcher.replaceFirst("<$1 name=\"" + attributeName + "\">" + replacementValue + "</$1>");
-            }
+        public static CompiledReplacer compile(Collection<String> attributeNames) {
+            String names = CompiledReplacer.toAlternation(attributeNames);
+            // Matches an attribute value (e.g., android:icon="...") or the content of an element by its 'name' attribute (e.g., <string name="app_name">...</string>)
+            Pattern pattern = Pattern.compile("(?<attributePrefix>\\s(?<attribute>" + names + ")=\")[^\"]*\"" +
+                    "|<(?<tag>\\w+)\\s+name=\"(?<element>" + names + ")\"\\s*>[^<]*</\\k<tag>>");
+            return new CompiledReplacer(pattern, attributeNames) {
+                @Override
+                protected String getAttributeName(Matcher matcher) {
+                    String attributeName = matcher.group("attribute");
+                    return attributeName != null ? attributeName : matcher.group("element");
+                }
 
-            return null;  // No match found in this line
+                @Override
+                protected void appendReplacement(StringBuilder updatedContent, Matcher matcher, String attributeName, Object value) {
+                    if (matcher.group("attribute") != null) {
+                        updatedContent.append(matcher.group("attributePrefix")).append(value).append('"');
+                    } else {
+                        String tag = matcher.group("tag");
+                        updatedContent.append('<').append(tag).append(" name=\"").append(attributeName).append("\">").append(value).append("</").append(tag).append('>');
+                    }
+                }
+            };
         }
     }
 }
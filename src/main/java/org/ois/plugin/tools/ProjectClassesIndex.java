@@ -0,0 +1,109 @@
+package org.ois.plugin.tools;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Persistent index of the class headers of the project compiled class files, keyed by the path of each class file.
+ * Used to re-read only the class files that changed since the last build, instead of all the project classes.
+ */
+public class ProjectClassesIndex {
+    private static final Logger log = LoggerFactory.getLogger(ProjectClassesIndex.class);
+    /** Change this value when the index file format changes, old index files will be ignored **/
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path indexFile;
+    /** Sorted by path, so classes from the first classes directory ('java' before 'kotlin') take precedence **/
+    private final Map<String, ClassHeader> classFiles = new TreeMap<>();
+
+    private ProjectClassesIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Load the index from a given file, if the file does not exist or can't be read an empty index is returned.
+     * @param indexFile - the file that holds the index
+     * @return the loaded index
+     */
+    public static ProjectClassesIndex load(Path indexFile) {
+        ProjectClassesIndex index = new ProjectClassesIndex(indexFile);
+        if (!indexFile.toFile().exists()) {
+            return index;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                log.debug("Project classes index format changed, ignoring existing index");
+                return index;
+            }
+            int classCount = in.readInt();
+            for (int i = 0; i < classCount; i++) {
+                String classFilePath = in.readUTF();
+                index.classFiles.put(classFilePath, ClassHierarchyIndex.readClass(in));
+            }
+            log.debug("Loaded project classes index with {} classes", index.classFiles.size());
+        } catch (IOException e) {
+            log.debug("Failed to read project classes index, ignoring existing index", e);
+            index.classFiles.clear();
+        }
+        return index;
+    }
+
+    /**
+     * Create an empty index that will be saved to a given file, the existing content of the file is ignored.
+     * @param indexFile - the file that will hold the index
+     * @return an empty index
+     */
+    public static ProjectClassesIndex empty(Path indexFile) {
+        return new ProjectClassesIndex(indexFile);
+    }
+
+    /**
+     * Read a class file (added or modified) and index its header
+     * @param classFile - the class file to index
+     * @throws IOException - in case of error when reading the class file
+     */
+    public void put(File classFile) throws IOException {
+        this.classFiles.put(classFile.getAbsolutePath(), ClassFileReader.read(classFile.toPath()));
+    }
+
+    /**
+     * Remove a (deleted) class file from the index
+     * @param classFile - the class file to remove
+     */
+    public void remove(File classFile) {
+        this.classFiles.remove(classFile.getAbsolutePath());
+    }
+
+    /**
+     * Get the headers of all the indexed class files
+     * @return the indexed class headers, ordered by the path of their class files
+     */
+    public Collection<ClassHeader> getClasses() {
+        return Collections.unmodifiableCollection(this.classFiles.values());
+    }
+
+    /**
+     * Save the index to its file.
+     * @throws IOException - in case of error when writing the index file
+     */
+    public void save() throws IOException {
+        Files.createDirectories(this.indexFile.getParent());
+        Path tempFile = this.indexFile.resolveSibling(this.indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(this.classFiles.size());
+            for (Map.Entry<String, ClassHeader> entry : this.classFiles.entrySet()) {
+                out.writeUTF(entry.getKey());
+                ClassHierarchyIndex.writeClass(out, entry.getValue());
+            }
+        }
+        Files.move(tempFile, this.indexFile, StandardCopyOption.REPLACE_EXISTING);
+        log.debug("Saved project classes index with {} classes", this.classFiles.size());
+    }
+}
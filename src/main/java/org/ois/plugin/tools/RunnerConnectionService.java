@@ -0,0 +1,164 @@
+package org.ois.plugin.tools;
+
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.ois.plugin.utils.GradleUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds a Tooling API connection for each runner working directory, for the life of the build that uses the plugin.
+ * The run and export tasks of all the platforms share the connection of their runner, instead of connecting for each task.
+ * The distribution tasks of the platforms that wait for the runner are combined to a single parallel build, see {@link #runCombinedTasks}.
+ * The daemon that runs the runner builds outlives the build (up to its idle timeout), so the next build attaches to a warm daemon.
+ * A service is registered for each project, with the daemon configurations of the project.
+ */
+public abstract class RunnerConnectionService implements BuildService<RunnerConnectionService.Parameters>, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(RunnerConnectionService.class);
+
+    /** The open connections, by runner working directory **/
+    private final Map<Path, ProjectConnection> connections = new ConcurrentHashMap<>();
+    /** Only one build runs in a runner working directory at a time, the platforms of a runner share its build outputs and '.gradle' state **/
+    private final Map<Path, ReentrantLock> buildLocks = new ConcurrentHashMap<>();
+    /** The next combined build of each runner working directory, collects the tasks that are requested while another build runs **/
+    private final Map<Path, CombinedBuild> pendingBuilds = new ConcurrentHashMap<>();
+
+    /**
+     * The configurations of the daemon that runs the runner builds
+     */
+    public interface Parameters extends BuildServiceParameters {
+        /** The JVM arguments of the daemon, if empty the runner project JVM arguments are used **/
+        ListProperty<String> getJvmArgs();
+        /**
+         * The minutes the daemon stays alive without builds, if not present the runner project (or Gradle default) idle timeout is used.
+         * Applied to the daemon when it is started, a running daemon that is compatible with the JVM arguments is reused with its own idle timeout.
+         */
+        Property<Integer> getIdleTimeout();
+    }
+
+    /**
+     * Run a given Gradle tasks of a runner, with the connection of the runner working directory.
+     * Waits for the build that runs in the same working directory (i.e. the export of the platforms) to finish.
+     * @param workingDir - the runner working directory to run the gradle tasks on
+     * @param environmentVariables - the environment variables that will be injected to the gradle tasks process
+     * @param log - the gradle tasks will output their logs to it.
+     * @param oneByOne - if true, each task runs in its own build
+     * @param gradleTasks - the tasks to run
+     */
+    public void runTasks(Path workingDir, Map<String, String> environmentVariables, Logger log, boolean oneByOne, String... gradleTasks) {
+        ReentrantLock buildLock = this.buildLocks.computeIfAbsent(workingDir.toAbsolutePath().normalize(), ignored -> new ReentrantLock());
+        buildLock.lock();
+        try {
+            GradleUtils.runTasks(getConnection(workingDir), getParameters().getJvmArgs().get(), getBuildArguments(), environmentVariables, log, oneByOne, gradleTasks);
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Run a given Gradle tasks of a runner, combined with the tasks of the other callers that wait for the runner working directory.
+     * The tasks that are requested while another build runs in the working directory are combined to the next build, that runs them with '--parallel'.
+     * Each platform is a separate project of the runner, so a single daemon builds the platforms at the same time instead of one after the other.
+     * The combined build runs with the environment of its first caller, and a failure of the combined build fails all its callers.
+     * @param workingDir - the runner working directory to run the gradle tasks on
+     * @param environmentVariables - the environment variables that will be injected to the gradle tasks process
+     * @param log - the gradle tasks will output their logs to it.
+     * @param gradleTasks - the tasks to run
+     */
+    public void runCombinedTasks(Path workingDir, Map<String, String> environmentVariables, Logger log, String... gradleTasks) {
+        Path runnerDir = workingDir.toAbsolutePath().normalize();
+        CombinedBuild build = this.pendingBuilds.compute(runnerDir, (dir, pending) -> {
+            CombinedBuild next = pending != null ? pending : new CombinedBuild(environmentVariables, log);
+            next.tasks.addAll(List.of(gradleTasks));
+            return next;
+        });
+        ReentrantLock buildLock = this.buildLocks.computeIfAbsent(runnerDir, ignored -> new ReentrantLock());
+        buildLock.lock();
+        try {
+            // Close the build, the tasks that are requested from now on are combined to the next build
+            this.pendingBuilds.remove(runnerDir, build);
+            build.run(getConnection(runnerDir), getParameters().getJvmArgs().get(), getBuildArguments());
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Get the connection to a runner working directory, connects on the first use.
+     * The connection is thread safe and shared by the platforms of the runner, their builds are serialized by {@link #runTasks}.
+     * @param workingDir - the runner working directory
+     * @return the open connection to the runner project
+     */
+    public ProjectConnection getConnection(Path workingDir) {
+        return this.connections.computeIfAbsent(workingDir.toAbsolutePath().normalize(), this::connect);
+    }
+
+    private ProjectConnection connect(Path workingDir) {
+        log.debug("Connecting to runner project {}", workingDir);
+        return GradleConnector.newConnector().forProjectDirectory(workingDir.toFile()).connect();
+    }
+
+    private List<String> getBuildArguments() {
+        if (!getParameters().getIdleTimeout().isPresent()) {
+            return List.of();
+        }
+        // The daemon options are read from the build arguments like from 'gradle.properties'
+        return List.of("-Dorg.gradle.daemon.idletimeout=" + TimeUnit.MINUTES.toMillis(getParameters().getIdleTimeout().get()));
+    }
+
+    /**
+     * The tasks of the callers that are combined to a single runner build, the first caller that holds the runner lock runs the build for all of them
+     */
+    private static class CombinedBuild {
+        private final Set<String> tasks = new LinkedHashSet<>();
+        private final Map<String, String> environmentVariables;
+        private final Logger log;
+        private boolean done;
+        private RuntimeException failure;
+
+        private CombinedBuild(Map<String, String> environmentVariables, Logger log) {
+            this.environmentVariables = environmentVariables;
+            this.log = log;
+        }
+
+        /** Runs under the runner lock, only the first caller runs the build and the others get its result **/
+        private void run(ProjectConnection connection, List<String> jvmArgs, List<String> buildArguments) {
+            if (!this.done) {
+                this.done = true;
+                List<String> arguments = new ArrayList<>(buildArguments);
+                arguments.add("--parallel");
+                try {
+                    GradleUtils.runTasks(connection, jvmArgs, arguments, this.environmentVariables, this.log, false, this.tasks.toArray(String[]::new));
+                } catch (RuntimeException e) {
+                    this.failure = e;
+                }
+            }
+            if (this.failure != null) {
+                throw this.failure;
+            }
+        }
+    }
+
+    /**
+     * Close the connections when the build is finished, the daemon itself is kept alive
+     */
+    @Override
+    public void close() {
+        this.connections.values().forEach(ProjectConnection::close);
+        this.connections.clear();
+    }
+}
@@ -0,0 +1,230 @@
+package org.ois.plugin.tools;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.ois.core.utils.io.FileUtils;
+import org.ois.plugin.utils.GitUtils;
+import org.ois.plugin.utils.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * A machine-wide store of runner checkouts, shared by all the projects (and worktrees) on the machine.
+ * Each checkout is keyed by the commit it was checked out at, so it never changes once stored and can be shared safely.
+ * Only the commit itself is fetched (shallow, by its id, without listing the repository references again), unless the repository does not serve the commit by its id.
+ * The runners can also be cloned from a local mirror or bundle, or unpacked from a runner archive (keyed by its checksum), for machines without network access.
+ * Projects materialize their own working copy of a stored runner (see {@link DirectorySynchronizer.StagingMode#Link}).
+ * The working copies share the content of the stored files, so a file that is written in place in a working copy also changes the stored runner.
+ * The size and modified time of the stored files are recorded when the runner is stored ('{key}.files'), a stored runner that does not match them is stored again.
+ * Storing a runner is protected by a file lock, so concurrent builds (and projects of the same build) clone each commit only once.
+ * The (empty) lock files ('{key}.lock') are kept in the store, deleting a lock file while another build waits for it would let two builds store the same runner.
+ */
+public class RunnerStore {
+    private static final Logger log = LoggerFactory.getLogger(RunnerStore.class);
+    /** File locks are held by the JVM, projects of the same build also need to lock each other out **/
+    private static final Map<Path, ReentrantLock> storeLocks = new ConcurrentHashMap<>();
+
+    private final Path storeDirectory;
+
+    /**
+     * Create a store in a given directory
+     * @param storeDirectory - the directory that holds the stored runners
+     */
+    public RunnerStore(Path storeDirectory) {
+        this.storeDirectory = storeDirectory;
+    }
+
+    /**
+     * Get the directory of a stored runner commit
+     * @param commit - the full id of the runner commit
+     * @return the directory of the runner checkout, may not exist
+     */
+    public Path getRunnerDirectory(String commit) {
+        return this.storeDirectory.resolve(commit);
+    }
+
+    /**
+     * Get a stored runner, cloning it to the store if it is not stored yet
+     * @param repositoryURL - the runners repository (remote, or a local mirror or bundle)
+     * @param reference - the branch or tag that points to the commit
+     * @param commit - the full id of the commit to store
+     * @return the directory of the stored runner checkout
+     * @throws IOException - in case of error when locking or writing the store
+     * @throws GitAPIException - in case of error when cloning the runners repository
+     */
+    public Path provide(String repositoryURL, String reference, String commit) throws IOException, GitAPIException {
+        return provide(commit, tempDirectory -> {
+            log.info("Storing runner '{}' ({}) at {}", reference, commit, getRunnerDirectory(commit));
+            if (!fetchCommit(repositoryURL, commit, tempDirectory)) {
+                // The commit is not served by its id (i.e. it is no longer the tip of a branch): clone the history and checkout the commit
+                log.debug("Runner commit {} can't be fetched by its id, cloning the full history", commit);
+                FileUtils.deleteDirectoryContent(tempDirectory);
+                GitUtils.cloneRepoAtCommit(repositoryURL, commit, tempDirectory).close();
+            }
+        });
+    }
+
+    /**
+     * Get a stored runner, unpacking it from a runner archive to the store if it is not stored yet.
+     * The archive is verified before it is unpacked, an archive with a single root directory is stored as the content of the directory.
+     * @param archive - the zip archive of the runners project
+     * @param id - the id of the archive content in the store
+     * @param sha256 - the checksum the archive must match, null to skip the verification
+     * @return the directory of the stored runner
+     * @throws IOException - in case of error when locking or writing the store, or if the archive does not match the checksum
+     */
+    public Path provideArchive(Path archive, String id, String sha256) throws IOException {
+        try {
+            return provide(id, tempDirectory -> {
+                log.info("Storing runner archive {} ({}) at {}", archive, id, getRunnerDirectory(id));
+                verifyChecksum(archive, sha256);
+                IOUtils.unzip(archive, tempDirectory);
+                File[] content = tempDirectory.toFile().listFiles();
+                if (content != null && content.length == 1 && content[0].isDirectory()) {
+                    // Packed with its root directory, store the content of the root directory
+                    Path rootDirectory = content[0].toPath();
+                    Path unpackedDirectory = this.storeDirectory.resolve(id + ".root");
+                    if (Files.exists(unpackedDirectory)) {
+                        // Left by an interrupted build
+                        FileUtils.deleteDirectoryContent(unpackedDirectory);
+                        Files.delete(unpackedDirectory);
+                    }
+                    Files.move(rootDirectory, unpackedDirectory, StandardCopyOption.ATOMIC_MOVE);
+                    Files.delete(tempDirectory);
+                    Files.move(unpackedDirectory, tempDirectory, StandardCopyOption.ATOMIC_MOVE);
+                }
+            });
+        } catch (GitAPIException e) {
+            // Not using git to unpack an archive
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Verify that a file matches a given SHA-256 checksum
+     * @param file - the file to verify
+     * @param sha256 - the expected checksum of the file, null to skip the verification
+     * @throws IOException - in case of error when reading the file, or if the file does not match the checksum
+     */
+    public static void verifyChecksum(Path file, String sha256) throws IOException {
+        if (sha256 == null) {
+            return;
+        }
+        String actual = IOUtils.sha256(file);
+        if (!actual.equalsIgnoreCase(sha256)) {
+            throw new IOException("Integrity check failed for " + file + ": expected SHA-256 " + sha256 + " but was " + actual);
+        }
+        log.debug("Integrity check passed for {}", file);
+    }
+
+    private Path provide(String key, StoreAction storeAction) throws IOException, GitAPIException {
+        Path runnerDirectory = getRunnerDirectory(key);
+        if (isIntact(key)) {
+            return runnerDirectory;
+        }
+        Files.createDirectories(this.storeDirectory);
+        Path lockFile = this.storeDirectory.resolve(key + ".lock");
+        ReentrantLock lock = storeLocks.computeIfAbsent(lockFile, ignored -> new ReentrantLock());
+        lock.lock();
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            // Another build may have stored it while waiting for the lock
+            if (isIntact(key)) {
+                return runnerDirectory;
+            }
+            if (Files.exists(runnerDirectory)) {
+                log.warn("Stored runner {} was modified (a file was written in place in a working copy), storing it again", key);
+                deleteDirectory(runnerDirectory);
+            }
+            Path tempDirectory = this.storeDirectory.resolve(key + ".tmp");
+            if (Files.exists(tempDirectory)) {
+                // Left by an interrupted build
+                deleteDirectory(tempDirectory);
+            }
+            storeAction.store(tempDirectory);
+            Files.writeString(getFilesRecord(key), String.join("\n", listFiles(tempDirectory)));
+            // Only complete runners are visible in the store
+            Files.move(tempDirectory, runnerDirectory, StandardCopyOption.ATOMIC_MOVE);
+            return runnerDirectory;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path getFilesRecord(String key) {
+        return this.storeDirectory.resolve(key + ".files");
+    }
+
+    /**
+     * Check that a runner is stored and its files did not change since it was stored
+     * @return true if the stored files match their record, or if the runner was stored without a record, false otherwise
+     */
+    private boolean isIntact(String key) throws IOException {
+        Path runnerDirectory = getRunnerDirectory(key);
+        if (!Files.isDirectory(runnerDirectory)) {
+            return false;
+        }
+        Path filesRecord = getFilesRecord(key);
+        if (!Files.isRegularFile(filesRecord)) {
+            log.debug("Stored runner {} has no files record, can't verify it", key);
+            return true;
+        }
+        return String.join("\n", listFiles(runnerDirectory)).equals(Files.readString(filesRecord));
+    }
+
+    /**
+     * List the files of a runner with their size and modified time, without the git metadata
+     * @return the sorted entries of the files, 'path:size:modifiedTime'
+     */
+    private static List<String> listFiles(Path runnerDirectory) throws IOException {
+        try (Stream<Path> files = Files.walk(runnerDirectory)) {
+            List<String> entries = new ArrayList<>();
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Path relativePath = runnerDirectory.relativize(file);
+                if (relativePath.startsWith(".git")) {
+                    continue;
+                }
+                entries.add(relativePath.toString().replace(File.separatorChar, '/') + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis());
+            }
+            Collections.sort(entries);
+            return entries;
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!FileUtils.deleteDirectoryContent(directory)) {
+            throw new IOException("Can't delete the content of " + directory);
+        }
+        Files.delete(directory);
+    }
+
+    /** Writes the content of a runner to a temporary directory, before it is moved to the store **/
+    private interface StoreAction {
+        void store(Path tempDirectory) throws IOException, GitAPIException;
+    }
+
+    private static boolean fetchCommit(String repositoryURL, String commit, Path directory) {
+        try (Git ignored = GitUtils.fetchCommit(repositoryURL, commit, directory)) {
+            return true;
+        } catch (GitAPIException e) {
+            log.debug("Can't fetch runner commit {} from {}: {}", commit, repositoryURL, e.getMessage());
+            return false;
+        }
+    }
+}
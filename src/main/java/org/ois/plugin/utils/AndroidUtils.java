@@ -52,7 +52,16 @@ public class AndroidUtils {
      * @return - list of files and directories to zip
      */
     public static Path[] getAndroidFilesToZip(Project project) {
-        Path releaseDir = SimulationUtils.getRunner(project).getAndroidRunnerDirectory().resolve("build").resolve("outputs").resolve("apk").resolve("release");
+        return getAndroidFilesToZip(SimulationUtils.getRunner(project).getAndroidRunnerDirectory());
+    }
+
+    /**
+     * Get the list of artifacts to zip for Android distribution
+     * @param androidRunnerDirectory - the directory containing the Android runner.
+     * @return - list of files and directories to zip
+     */
+    public static Path[] getAndroidFilesToZip(Path androidRunnerDirectory) {
+        Path releaseDir = androidRunnerDirectory.resolve("build").resolve("outputs").resolve("apk").resolve("release");
         File[] files = releaseDir.toFile().listFiles();
         if (files == null || files.length == 0) {
             throw new RuntimeException("[Android] Can't find any artifacts to zip");
@@ -44,7 +44,16 @@ public class DesktopUtils {
      * @return - list of files and directories to zip
      */
     public static Path[] getDesktopFilesToZip(Project project) {
-        Path jpackageDir = SimulationUtils.getRunner(project).getDesktopRunnerDirectory().resolve("build").resolve("jpackage");
+        return getDesktopFilesToZip(SimulationUtils.getRunner(project).getDesktopRunnerDirectory());
+    }
+
+    /**
+     * Get the list of artifacts to zip for Desktop distribution
+     * @param desktopRunnerDirectory - the directory containing the Desktop runner.
+     * @return - list of files and directories to zip
+     */
+    public static Path[] getDesktopFilesToZip(Path desktopRunnerDirectory) {
+        Path jpackageDir = desktopRunnerDirectory.resolve("build").resolve("jpackage");
         File[] files = jpackageDir.toFile().listFiles();
         if (files == null || files.length == 0) {
             throw new RuntimeException("[Desktop] Can't find any artifacts to zip");
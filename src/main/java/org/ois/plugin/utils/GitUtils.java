@@ -2,8 +2,15 @@ package org.ois.plugin.utils;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.TagOpt;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Git Utilities
@@ -25,4 +32,99 @@ public class GitUtils {
                 .setBranch(branch)
                 .call();
     }
+
+    /**
+     * Fetch only a given commit of a public GIT repository (shallow, by its id) to the file system and checkout the commit.
+     * The repository must serve the commit by its id, i.e. the commit is the tip of a branch or tag, or the server allows fetching reachable commits.
+     * @param repositoryURL - the public repository to fetch the commit from
+     * @param commit - the full id of the commit to checkout
+     * @param destinationFolder - the destination directory of the repository
+     * @return the repository object that the commit was fetched to.
+     * @throws GitAPIException - on git API call issue
+     */
+    public static Git fetchCommit(String repositoryURL, String commit, Path destinationFolder) throws GitAPIException {
+        Git git = Git.init().setDirectory(destinationFolder.toFile()).call();
+        try {
+            git.fetch()
+                    .setRemote(repositoryURL)
+                    .setRefSpecs(new RefSpec(commit))
+                    .setDepth(1)
+                    .setTagOpt(TagOpt.NO_TAGS)
+                    .call();
+            git.checkout().setName(commit).call();
+        } catch (GitAPIException e) {
+            git.close();
+            throw e;
+        }
+        return git;
+    }
+
+    /**
+     * Clone a public GIT repository, with its full history, to the file system and checkout a given commit
+     * @param repositoryURL - the public repository to clone
+     * @param commit - the full id of the commit to checkout
+     * @param destinationFolder - the destination directory of the cloned repository
+     * @return the repository object that was cloned.
+     * @throws GitAPIException - on git API call issue
+     */
+    public static Git cloneRepoAtCommit(String repositoryURL, String commit, Path destinationFolder) throws GitAPIException {
+        // The remote HEAD may not be advertised (i.e. a bundle), clone from any branch before checking out the commit
+        String initialBranch = listRemoteRefs(repositoryURL).keySet().stream()
+                .filter(refName -> refName.startsWith(Constants.R_HEADS))
+                .sorted()
+                .findFirst()
+                .orElse(Constants.HEAD);
+        Git git = Git.cloneRepository()
+                .setURI(repositoryURL)
+                .setDirectory(destinationFolder.toFile())
+                .setBranch(initialBranch)
+                .setCloneAllBranches(true)
+                .call();
+        try {
+            git.checkout().setName(commit).call();
+        } catch (GitAPIException e) {
+            git.close();
+            throw e;
+        }
+        return git;
+    }
+
+    /**
+     * Resolve a branch or a tag of a remote GIT repository to the commit it points to, without cloning the repository
+     * @param repositoryURL - the repository to resolve the reference in
+     * @param reference - the branch or tag name, or a full commit id
+     * @return the full id of the commit the reference points to
+     * @throws GitAPIException - on git API call issue
+     */
+    public static String resolveCommit(String repositoryURL, String reference) throws GitAPIException {
+        if (ObjectId.isId(reference)) {
+            return reference;
+        }
+        Map<String, Ref> refs = listRemoteRefs(repositoryURL);
+        Ref ref = findRef(refs, reference, repositoryURL);
+        // An annotated tag points to a tag object, use the commit it points to (advertised as peeled by local repositories)
+        if (ref.getPeeledObjectId() != null) {
+            return ref.getPeeledObjectId().getName();
+        }
+        Ref peeledRef = refs.get(ref.getName() + "^{}");
+        return (peeledRef != null ? peeledRef : ref).getObjectId().getName();
+    }
+
+    private static Map<String, Ref> listRemoteRefs(String repositoryURL) throws GitAPIException {
+        return Git.lsRemoteRepository()
+                .setRemote(repositoryURL)
+                .setHeads(true)
+                .setTags(true)
+                .callAsMap();
+    }
+
+    private static Ref findRef(Map<String, Ref> refs, String reference, String repositoryURL) {
+        for (String refName : List.of(Constants.R_HEADS + reference, Constants.R_TAGS + reference)) {
+            Ref ref = refs.get(refName);
+            if (ref != null) {
+                return ref;
+            }
+        }
+        throw new IllegalArgumentException("Can't find branch or tag '" + reference + "' in " + repositoryURL);
+    }
 }
@@ -8,6 +8,7 @@ import org.ois.core.utils.Version;
 import org.slf4j.Logger;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,26 +29,48 @@ public class GradleUtils {
     }
 
     /**
-     * Run a given Gradle tasks
+     * Run a given Gradle tasks with a new connection to the project, the connection is closed when the tasks are done
      * @param workingDir - the project directory to run the gradle tasks on
      * @param environmentVariables - the environment variables that will be injected to the gradle tasks process
      * @param log - the gradle tasks will output their logs to it.
+     * @param oneByOne - if true, each task runs in its own build
      * @param gradleTasks - the tasks to run
      */
     public static void runTasks(Path workingDir, Map<String, String> environmentVariables, Logger log, boolean oneByOne, String... gradleTasks) {
         try (ProjectConnection connection = GradleConnector.newConnector().forProjectDirectory(workingDir.toFile()).connect()){
-            if (!oneByOne) {
-                getBuildLauncher(connection, environmentVariables, log, gradleTasks).run();
-                return;
-            }
-            for (String task : gradleTasks) {
-                getBuildLauncher(connection, environmentVariables, log, task).run();
-            }
+            runTasks(connection, List.of(), List.of(), environmentVariables, log, oneByOne, gradleTasks);
         }
     }
 
-    private static BuildLauncher getBuildLauncher(ProjectConnection connection, Map<String, String> environmentVariables, Logger log, String... gradleTasks) {
+    /**
+     * Run a given Gradle tasks with an open connection to the project, the connection is not closed
+     * @param connection - the connection to the project to run the gradle tasks on
+     * @param jvmArgs - the JVM arguments of the daemon that runs the tasks, if empty the project JVM arguments are used
+     * @param arguments - the extra command line arguments of the build (i.e. '-D' Gradle properties)
+     * @param environmentVariables - the environment variables that will be injected to the gradle tasks process
+     * @param log - the gradle tasks will output their logs to it.
+     * @param oneByOne - if true, each task runs in its own build
+     * @param gradleTasks - the tasks to run
+     */
+    public static void runTasks(ProjectConnection connection, List<String> jvmArgs, List<String> arguments, Map<String, String> environmentVariables, Logger log, boolean oneByOne, String... gradleTasks) {
+        if (!oneByOne) {
+            getBuildLauncher(connection, jvmArgs, arguments, environmentVariables, log, gradleTasks).run();
+            return;
+        }
+        for (String task : gradleTasks) {
+            getBuildLauncher(connection, jvmArgs, arguments, environmentVariables, log, task).run();
+        }
+    }
+
+    private static BuildLauncher getBuildLauncher(ProjectConnection connection, List<String> jvmArgs, List<String> arguments, Map<String, String> environmentVariables, Logger log, String... gradleTasks) {
         BuildLauncher launcher = connection.newBuild().forTasks(gradleTasks);
+        if (!jvmArgs.isEmpty()) {
+            // Only daemons with the same JVM arguments are reused
+            launcher.setJvmArguments(jvmArgs);
+        }
+        if (!arguments.isEmpty()) {
+            launcher.withArguments(arguments);
+        }
         // Set environment variables for the task execution
         launcher.setEnvironmentVariables(environmentVariables);
         // Redirect Gradle output to SLF4J logger
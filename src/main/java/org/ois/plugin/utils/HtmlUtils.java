@@ -1,10 +1,8 @@
 package org.ois.plugin.utils;
 
 import org.gradle.api.Project;
-import org.gradle.api.file.FileCollection;
 import org.ois.core.utils.io.data.DataNode;
 import org.ois.core.utils.io.data.formats.JsonFormat;
-import org.ois.plugin.tools.ClassImplementationFinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,8 +11,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Utility class to handle HTML-specific functionalities for the OIS simulation.
@@ -23,6 +22,19 @@ import java.util.Set;
 public class HtmlUtils {
     private static final Logger log = LoggerFactory.getLogger(HtmlUtils.class);
 
+    /** The OIS classes that their project implementations need to be accessible by reflection in the HTML runner **/
+    private static final Set<String> REFLECTION_TARGET_CLASSES = Set.of(
+            // State related implementation
+            "org.ois.core.state.IState",
+            "org.ois.core.project.blueprints.StateBlueprint",
+            // Entity related implementation
+            "org.ois.core.entities.Entity",
+            "org.ois.core.project.blueprints.EntityBlueprint",
+            // Component related implementation
+            "org.ois.core.components.IComponent",
+            "org.ois.core.project.blueprints.ComponentBlueprint"
+    );
+
     /**
      * Gets the path to the reflections items file inside the OIS simulation directory.
      * @param project The current Gradle project.
@@ -33,31 +45,60 @@ public class HtmlUtils {
     }
 
     /**
-     * Generates the content of the reflections file. If the file does not exist, returns an empty string.
+     * Gets the path to the persistent index of the project classpath jars class hierarchy.
      * @param project The current Gradle project.
-     * @return The content of the reflections file as a string, or an empty string if the file does not exist.
-     * @throws IOException if an I/O error occurs while reading the file.
+     * @return The path to the classpath index file.
+     */
+    public static Path getClasspathIndexFilePath(Project project) {
+        return SimulationUtils.getSimulationCacheDirectory(project).resolve("classpath.index");
+    }
+
+    /**
+     * Gets the OIS classes that their project implementations need to be accessible by reflection in the HTML runner.
+     * @return The full names of the reflection target classes.
+     */
+    public static Set<String> getReflectionTargetClasses() {
+        return REFLECTION_TARGET_CLASSES;
+    }
+
+    /**
+     * Gets the path to the directory that holds the reflection items generated by the 'generateReflection' task.
+     * @param project The current Gradle project.
+     * @return The path to the reflection cache directory.
+     */
+    public static Path getReflectionCacheDirectory(Project project) {
+        return SimulationUtils.getSimulationCacheDirectory(project).resolve("reflection");
+    }
+
+    /**
+     * Gets the path to the reflection items file generated by the 'generateReflection' task.
+     * @param project The current Gradle project.
+     * @return The path to the generated reflection.ois file.
      */
-    public static String generateReflectionFileContent(Project project) throws IOException {
-        Set<String> reflectionItems = new HashSet<>();
-        // check if exists
-        Path reflectionItemsFilePath = getReflectionsItemsFilePath(project);
-        if (reflectionItemsFilePath.toFile().exists()) {
-            for (DataNode reflectionItem : JsonFormat.compact().deserialize(Files.readString(reflectionItemsFilePath))) {
-                reflectionItems.add(reflectionItem.getString());
-            }
+    public static Path getGeneratedReflectionFilePath(Project project) {
+        return getReflectionCacheDirectory(project).resolve("reflection.ois");
+    }
+
+    /**
+     * Gets the path to the persistent index of the project class files headers, used to re-read only changed class files.
+     * @param project The current Gradle project.
+     * @return The path to the project classes index file.
+     */
+    public static Path getProjectClassesIndexFilePath(Project project) {
+        return getReflectionCacheDirectory(project).resolve("classes.index");
+    }
+
+    /**
+     * Generates the content of the reflections file from the implementations of the reflection target classes.
+     * @param implementations The reflection target classes mapped to the project classes that implement them.
+     * @return The content of the reflections file as a string, or an empty string if there are no items to reflect.
+     */
+    public static String generateReflectionFileContent(Map<String, Set<String>> implementations) {
+        // Sorted, so the generated file is the same for the same items
+        Set<String> reflectionItems = new TreeSet<>();
+        for (Set<String> targetImplementations : implementations.values()) {
+            reflectionItems.addAll(targetImplementations);
         }
-        Path projectBuildDir = SimulationUtils.getProjectBuildDirectory(project);
-        FileCollection classpath = project.getConfigurations().getByName("runtimeClasspath");
-        // Find State related implementation
-        reflectionItems.addAll(ClassImplementationFinder.find(projectBuildDir, classpath, "org.ois.core.state.IState"));
-        reflectionItems.addAll(ClassImplementationFinder.find(projectBuildDir, classpath, "org.ois.core.project.blueprints.StateBlueprint"));
-        // Find Entity related implementation
-        reflectionItems.addAll(ClassImplementationFinder.find(projectBuildDir, classpath,"org.ois.core.entities.Entity"));
-        reflectionItems.addAll(ClassImplementationFinder.find(projectBuildDir, classpath,"org.ois.core.project.blueprints.EntityBlueprint"));
-        // Find Component related implementation
-        reflectionItems.addAll(ClassImplementationFinder.find(projectBuildDir, classpath,"org.ois.core.components.IComponent"));
-        reflectionItems.addAll(ClassImplementationFinder.find(projectBuildDir, classpath,"org.ois.core.project.blueprints.ComponentBlueprint"));
         if (reflectionItems.isEmpty()) {
             return "";
         }
@@ -88,7 +129,16 @@ public class HtmlUtils {
      * @return - list of files and directories to zip
      */
     public static Path[] getHtmlFilesToZip(Project project) {
-        Path webappDir = SimulationUtils.getRunner(project).getHtmlRunnerDirectory().resolve("build").resolve("dist").resolve("webapp");
+        return getHtmlFilesToZip(SimulationUtils.getRunner(project).getHtmlRunnerDirectory());
+    }
+
+    /**
+     * Get the list of artifacts to zip for HTML distribution
+     * @param htmlRunnerDirectory - the directory containing the Html runner.
+     * @return - list of files and directories to zip
+     */
+    public static Path[] getHtmlFilesToZip(Path htmlRunnerDirectory) {
+        Path webappDir = htmlRunnerDirectory.resolve("build").resolve("dist").resolve("webapp");
         File[] files = webappDir.toFile().listFiles();
         if (files == null || files.length == 0) {
             throw new RuntimeException("[HTML] Can't find any artifacts to zip");
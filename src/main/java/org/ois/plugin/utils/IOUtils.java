@@ -0,0 +1,93 @@
+package org.ois.plugin.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * IO Utilities
+ */
+public class IOUtils {
+
+    /**
+     * Write a content to a file only if it is different from the existing content of the file.
+     * Keeping an unchanged file untouched keeps its modified time, so builds that use it as an input stay up-to-date.
+     * A changed file is replaced (written next to it and moved over it) instead of overwritten, so a file that is a hard link to a shared file is not modified in place.
+     * @param file - the file to write
+     * @param content - the content to write (UTF-8)
+     * @return true if the file was written, false if the file already had the given content
+     * @throws IOException - in case of error when reading or writing the file
+     */
+    public static boolean writeIfChanged(Path file, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (Files.isRegularFile(file) && Files.size(file) == bytes.length && Arrays.equals(Files.readAllBytes(file), bytes)) {
+            return false;
+        }
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tempFile, bytes);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * Compute the SHA-256 checksum of a file content, the file is streamed and not loaded to the memory
+     * @param file - the file to compute its checksum
+     * @return the checksum of the file as a lower case hex string
+     * @throws IOException - in case of error when reading the file
+     */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder checksum = new StringBuilder();
+        for (byte b : digest.digest()) {
+            checksum.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return checksum.toString();
+    }
+
+    /**
+     * Extract the content of a zip archive to a directory.
+     * Entries that resolve outside the destination directory (i.e. '../' in their names) are rejected.
+     * @param archive - the zip archive to extract
+     * @param destinationFolder - the directory to extract the archive content into
+     * @throws IOException - in case of error when reading the archive or writing its content
+     */
+    public static void unzip(Path archive, Path destinationFolder) throws IOException {
+        Path root = destinationFolder.toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                Path target = root.resolve(entry.getName()).normalize();
+                if (!target.startsWith(root)) {
+                    throw new IOException("Archive entry '" + entry.getName() + "' is outside of the destination directory");
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                    continue;
+                }
+                Files.createDirectories(target.getParent());
+                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
@@ -9,21 +9,26 @@ import org.ois.core.runner.RunnerConfiguration;
 import org.ois.core.utils.io.data.formats.JsonFormat;
 import org.ois.plugin.Const;
 import org.ois.plugin.PluginConfiguration;
+import org.ois.plugin.tools.RunnerConnectionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OIS Simulation Utilities
  */
 public class SimulationUtils {
     private static final Logger log = LoggerFactory.getLogger(SimulationUtils.class);
+    /** The checksums of the runner archives, by archive file version, the runner is created many times during a build **/
+    private static final Map<String, String> archiveChecksums = new ConcurrentHashMap<>();
 
     /**
      * Get the 'simulation' directory path, contains all the resources needed to configure and run the project simulation.
@@ -114,6 +119,15 @@ public class SimulationUtils {
         return getSimulationDirectory(project).resolve("runners");
     }
 
+    /**
+     * Get the machine-wide runners store directory, holds the runner checkouts (by commit) that are shared by all the projects on the machine
+     * @param project - the OIS project
+     * @return the path to the runners store directory in the Gradle user home
+     */
+    public static Path getRunnersStoreDirectory(Project project) {
+        return project.getGradle().getGradleUserHomeDir().toPath().resolve("caches").resolve("ois").resolve("runners");
+    }
+
     /**
      * Get the 'distribution' directory path, contains all the generated production artifacts of the simulation
      * @param project - the OIS project
@@ -123,6 +137,25 @@ public class SimulationUtils {
         return getSimulationDirectory(project).resolve("distribution");
     }
 
+    /**
+     * Get the 'cache' directory path, contains all the data the plugin tasks keep between runs to avoid repeating work
+     * @param project - the OIS project
+     * @return the path to its 'cache' directory
+     */
+    public static Path getSimulationCacheDirectory(Project project) {
+        return getSimulationDirectory(project).resolve("cache");
+    }
+
+    /**
+     * Get the manifest file of a synchronized simulation resources directory, holds the state of the synchronized files between runs
+     * @param project - the OIS project
+     * @param name - the name of the synchronized directory (i.e. 'assets')
+     * @return the path to the sync manifest file of the directory
+     */
+    public static Path getSimulationSyncManifestFile(Project project, String name) {
+        return getSimulationCacheDirectory(project).resolve("sync").resolve(name + ".manifest");
+    }
+
     /** for tasks after Prepare, gets the actual simulation manifest in the runner that will be used **/
     public static SimulationManifest getSimulationManifest(Project project) throws IOException {
         // in the project build dir
@@ -142,6 +175,13 @@ public class SimulationUtils {
         public final String version;
         /** Optional, if exists, is the path to local runner project used to run the project **/
         public final Path customSourceDir;
+        /** Optional, if exists, is the path to the runner archive the runner is unpacked from **/
+        public final Path archive;
+        /**
+         * The commit the runner version was resolved to ('sha256-{checksum}' for a runner archive).
+         * Null for a custom runner or if the version was not resolved yet.
+         **/
+        public final String commit;
 
         /**
          * Create the simulation runner base on a given project configurations
@@ -150,14 +190,24 @@ public class SimulationUtils {
         public SimulationRunner(Project project) {
             this.customSourceDir = PluginConfiguration.getCustomRunnerPath(project);
             String version = PluginConfiguration.getCustomRunnerVersion(project);
+            this.archive = this.customSourceDir == null ? PluginConfiguration.getRunnerArchivePath(project) : null;
             if (this.customSourceDir != null) {
                 // custom source takes priority over custom version
                 version = "custom";
+            } else if (this.archive != null) {
+                // the archive holds a single runner version
+                version = this.archive.getFileName().toString();
             } else if (version == null) {
                 version = Const.Versions.OIS_RUNNERS_VERSION;
             }
             this.version = version;
-            this.workingDirectory = getSimulationRunnersDirectory(project).resolve(version);
+            if (this.archive != null) {
+                this.commit = getRunnerArchiveId(project, this.archive);
+            } else {
+                this.commit = this.customSourceDir == null ? getPinnedRunnerCommit(project, version) : null;
+            }
+            // The working directory of a resolved version is named by its commit, the content of a commit never changes
+            this.workingDirectory = getSimulationRunnersDirectory(project).resolve(this.commit != null ? this.commit : version);
         }
 
         /**
@@ -168,22 +218,115 @@ public class SimulationUtils {
             return this.customSourceDir != null;
         }
 
+        /**
+         * Check if the simulation runner is unpacked from a runner archive
+         * @return - true if the runner is provided by a runner archive or false otherwise
+         */
+        public boolean isArchive() {
+            return this.archive != null;
+        }
+
+        /**
+         * Get the file that holds the commit of the runner that was materialized in the working directory (not used by custom runners)
+         * @return the runner commit file in the working directory
+         */
+        public Path getCommitFile() { return this.workingDirectory.resolve(".ois-runner-commit"); }
+
         public Path getHtmlRunnerDirectory() { return this.workingDirectory.resolve("html-runner"); }
 
         public Path getDesktopRunnerDirectory() { return this.workingDirectory.resolve("desktop-runner"); }
 
         public Path getAndroidRunnerDirectory() { return this.workingDirectory.resolve("android-runner"); }
 
+        /**
+         * Get the directory of the runner project of a given platform
+         * @param platform - the platform (runner type) to get its runner directory
+         * @return the runner project directory of the platform
+         */
+        public Path getPlatformRunnerDirectory(RunnerConfiguration.RunnerType platform) {
+            switch (platform) {
+                case Html -> {
+                    return getHtmlRunnerDirectory();
+                }
+                case Desktop -> {
+                    return getDesktopRunnerDirectory();
+                }
+                case Android -> {
+                    return getAndroidRunnerDirectory();
+                }
+            }
+            throw new RuntimeException("Unsupported platform type '" + platform + "'");
+        }
+
         @Override
         public String toString() {
             return "SimulationRunner{" +
                     "workingDirectory=" + workingDirectory +
                     ", version='" + version + '\'' +
+                    ", commit='" + commit + '\'' +
                     ", customSourceDir=" + customSourceDir +
+                    ", archive=" + archive +
                     '}';
         }
     }
 
+    /**
+     * Get the file that holds the commit a runner version (branch or tag) was resolved to for the project
+     * @param project - the OIS project
+     * @param version - the runner version
+     * @return the path to the pinned commit file of the version
+     */
+    public static Path getPinnedRunnerCommitFile(Project project, String version) {
+        return getSimulationCacheDirectory(project).resolve("runners").resolve(version.replace('/', '_') + ".commit");
+    }
+
+    /**
+     * Get the commit a runner version was resolved to for the project.
+     * The version is resolved once and pinned until the plugin caches are cleaned, so a moving branch (i.e. 'main') does not change the runner between builds.
+     * @param project - the OIS project
+     * @param version - the runner version
+     * @return the pinned commit of the version, or null if the version was not resolved yet
+     */
+    public static String getPinnedRunnerCommit(Project project, String version) {
+        Path pinnedCommitFile = getPinnedRunnerCommitFile(project, version);
+        if (!pinnedCommitFile.toFile().exists()) {
+            return null;
+        }
+        try {
+            String commit = Files.readString(pinnedCommitFile).trim();
+            return commit.isEmpty() ? null : commit;
+        } catch (IOException e) {
+            log.debug("Can't read the pinned runner commit of '{}'", version, e);
+            return null;
+        }
+    }
+
+    /**
+     * Get the id of a runner archive content, used as its commit.
+     * The configured 'runner.sha256' checksum is used as is (the archive is verified against it when it is unpacked),
+     * else the checksum of the archive is computed once for each version (size and modified time) of the archive file.
+     * @param project - the OIS project
+     * @param archive - the runner archive
+     * @return the id of the archive, 'sha256-{checksum}'
+     */
+    public static String getRunnerArchiveId(Project project, Path archive) {
+        String sha256 = PluginConfiguration.getRunnerSha256(project);
+        if (sha256 != null) {
+            return "sha256-" + sha256;
+        }
+        try {
+            String archiveVersion = archive + ":" + Files.size(archive) + ":" + Files.getLastModifiedTime(archive).toMillis();
+            String checksum = archiveChecksums.get(archiveVersion);
+            if (checksum == null) {
+                checksum = IOUtils.sha256(archive);
+                archiveChecksums.put(archiveVersion, checksum);
+            }
+            return "sha256-" + checksum;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't compute the checksum of the runner archive " + archive, e);
+        }
+    }
+
     /**
      * Get the simulation runner base on a given project configurations
      * @param project - to generate a runner for
@@ -225,13 +368,14 @@ public class SimulationUtils {
 
     /**
      * Execute the 'Run Simulation' gradle task for a given project using an ois-runner
+     * @param runnerConnections - the connections to the runners to run the task with
      * @param project - the OIS project to run its simulation
      * @param platform - the platform (ois-runner type) to run the simulation on
      * @param envVariables - the extra environment variables used in the task process
      */
-    public static void runSimulation(Project project, RunnerConfiguration.RunnerType platform, Map<String, String> envVariables) {
+    public static void runSimulation(RunnerConnectionService runnerConnections, Project project, RunnerConfiguration.RunnerType platform, Map<String, String> envVariables) {
         envVariables.putAll(System.getenv());
-        GradleUtils.runTasks(getRunner(project).workingDirectory, envVariables, log, RunnerConfiguration.RunnerType.Android.equals(platform), getRunnerRunSimulationGradleTasks(platform));
+        runnerConnections.runTasks(getRunner(project).workingDirectory, envVariables, log, RunnerConfiguration.RunnerType.Android.equals(platform), getRunnerRunSimulationGradleTasks(platform));
     }
 
     /**
@@ -249,20 +393,21 @@ public class SimulationUtils {
     }
 
     /**
-     * Get the simulation 'Distribute' gradle tasks base on the given platform
+     * Get the simulation 'Distribute' gradle tasks base on the given platform.
+     * The tasks are qualified by the platform runner project, so the distribution of a platform does not build the runners of the other platforms.
      * @param platform - the platform (runner type project) to get its 'Distribution' gradle tasks
      * @return - the tasks to preform in order to 'Distribute' simulation on the given platform
      */
     public static String[] getRunnerDistributionGradleTasks(RunnerConfiguration.RunnerType platform) {
         switch (platform) {
             case Html -> {
-                return new String[]{"build"};
+                return new String[]{":html-runner:build"};
             }
             case Desktop -> {
-                return new String[]{"jpackageImage"};
+                return new String[]{":desktop-runner:jpackageImage"};
             }
             case Android -> {
-                return new String[]{"packageRelease"};
+                return new String[]{":android-runner:packageRelease"};
             }
         }
         throw new RuntimeException("Unsupported platform type '" + platform + "'");
@@ -270,12 +415,13 @@ public class SimulationUtils {
 
     /**
      * Execute the 'Distribute Simulation' gradle task for a given project using an ois-runner
+     * @param runnerConnections - the connections to the runners to run the task with
      * @param project - the OIS project to run its simulation
      * @param platform - the platform (ois-runner type) to run the simulation on
      * @param envVariables - the extra environment variables used in the task process
      */
-    public static void distributeSimulation(Project project, RunnerConfiguration.RunnerType platform, Map<String, String> envVariables) {
+    public static void distributeSimulation(RunnerConnectionService runnerConnections, Project project, RunnerConfiguration.RunnerType platform, Map<String, String> envVariables) {
         envVariables.putAll(System.getenv());
-        GradleUtils.runTasks(getRunner(project).workingDirectory, envVariables, log, false, getRunnerDistributionGradleTasks(platform));
+        runnerConnections.runCombinedTasks(getRunner(project).workingDirectory, envVariables, log, getRunnerDistributionGradleTasks(platform));
     }
 }
@@ -3,12 +3,20 @@ package org.ois.plugin.utils;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.UnknownTaskException;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.TaskProvider;
+import org.ois.core.runner.RunnerConfiguration;
 import org.ois.plugin.Const;
+import org.ois.plugin.PluginConfiguration;
 import org.ois.plugin.tasks.*;
+import org.ois.plugin.tools.RunnerConnectionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
 /**
  * Task Utilities
  */
@@ -27,6 +35,19 @@ public class TaskUtils {
         });
     }
 
+    /**
+     * Register the runners connection service of the project to the build if not already registered.
+     * Each project has its own service (named by the project path), so its runner builds use the daemon configurations of the project.
+     * @param project - the project to register the service for
+     * @return the provider of the service
+     */
+    public static Provider<RunnerConnectionService> addRunnerConnectionService(Project project) {
+        return project.getGradle().getSharedServices().registerIfAbsent(Const.RUNNER_CONNECTION_SERVICE_NAME + project.getPath(), RunnerConnectionService.class, service -> {
+            service.getParameters().getJvmArgs().set(project.provider(() -> PluginConfiguration.getRunnerDaemonJvmArgs(project)));
+            service.getParameters().getIdleTimeout().set(project.provider(() -> PluginConfiguration.getRunnerDaemonIdleTimeout(project)));
+        });
+    }
+
     /**
      * Register OIS-Project-Validation task to the project if not already registered.
      * Checks if the project is a valid OIS project and output issues if exists
@@ -40,6 +61,26 @@ public class TaskUtils {
         return registerTaskInProject(Const.Tasks.VALIDATE_PROJECT_TASK_NAME, ValidateProjectTask.class, Const.Tasks.VALIDATE_PROJECT_TASK_DESCRIPTION, project);
     }
 
+    /**
+     * Register Generate-Reflection task to the project if not already registered.
+     * Generate the list of project classes that need to be accessible by reflection in the HTML runner
+     * @param project - the project to register the task to
+     * @return the task provider of the task
+     */
+    public static TaskProvider<GenerateReflectionTask> addGenerateReflectionTask(Project project) {
+        try {
+            return project.getTasks().named(Const.Tasks.GENERATE_REFLECTION_TASK_NAME, GenerateReflectionTask.class);
+        } catch (UnknownTaskException ignored) {}
+        TaskProvider<GenerateReflectionTask> task = registerTaskInProject(Const.Tasks.GENERATE_REFLECTION_TASK_NAME, GenerateReflectionTask.class, Const.Tasks.GENERATE_REFLECTION_TASK_DESCRIPTION, project);
+        task.configure(generateReflectionTask -> {
+            // The main classes output of each of the project languages (i.e. 'build/classes/java/main', 'build/classes/kotlin/main')
+            generateReflectionTask.getProjectClasses().from(project.fileTree(SimulationUtils.getProjectBuildDirectory(project).resolve("classes"), classes -> classes.include("*/main/**/*.class")));
+            generateReflectionTask.getRuntimeClasspath().from(project.getConfigurations().getByName("runtimeClasspath"));
+            generateReflectionTask.dependsOn(project.getTasks().named("classes"));
+        });
+        return task;
+    }
+
     /**
      * Register OIS-Prepare-Simulation task to the project if not already registered.
      * Prepare the environment required for the OIS simulation actions
@@ -59,64 +100,150 @@ public class TaskUtils {
         return task;
     }
 
+    /**
+     * Register Prepare-Platform-Simulation task of a given platform to the project if not already registered.
+     * Prepare the runner of the platform with the project configurations, the task is skipped if the platform is not configured in the simulation manifest.
+     * @param project - the project to register the task to
+     * @param platform - the platform to prepare
+     * @param prepareSimulationTask - the task that prepares the runner and the resources that are shared by all the platforms
+     * @return the task provider of the task
+     */
+    public static TaskProvider<PreparePlatformSimulationTask> addPreparePlatformSimulationTask(Project project, RunnerConfiguration.RunnerType platform, TaskProvider<PrepareSimulationTask> prepareSimulationTask) {
+        String taskName = getPreparePlatformSimulationTaskName(platform);
+        try {
+            return project.getTasks().named(taskName, PreparePlatformSimulationTask.class);
+        } catch (UnknownTaskException ignored) {}
+        TaskProvider<PreparePlatformSimulationTask> task = registerTaskInProject(taskName, PreparePlatformSimulationTask.class, String.format(Const.Tasks.PREPARE_PLATFORM_SIMULATION_TASK_DESCRIPTION, platform), project);
+        task.configure(preparePlatformTask -> {
+            preparePlatformTask.getPlatform().set(platform);
+            preparePlatformTask.dependsOn(prepareSimulationTask);
+            if (RunnerConfiguration.RunnerType.Html.equals(platform)) {
+                // Only the HTML runner uses the reflection items
+                preparePlatformTask.dependsOn(addGenerateReflectionTask(project));
+            }
+            preparePlatformTask.onlyIf(ignored -> isPlatformConfigured(project, platform));
+        });
+        return task;
+    }
+
+    private static String getPreparePlatformSimulationTaskName(RunnerConfiguration.RunnerType platform) {
+        return switch (platform) {
+            case Html -> Const.Tasks.PREPARE_HTML_SIMULATION_TASK_NAME;
+            case Desktop -> Const.Tasks.PREPARE_DESKTOP_SIMULATION_TASK_NAME;
+            case Android -> Const.Tasks.PREPARE_ANDROID_SIMULATION_TASK_NAME;
+        };
+    }
+
     /**
      * Register OIS-run-html-simulation task to the project if not already registered.
      * Prepare the environment required for the OIS simulation actions
      * @param project - the project to register the task to
-     * @param prepareSimulationTask- the required task before this
+     * @param prepareSimulationTask- the shared preparation task, the task depends only on the prepare task of its platform
      */
     public static void addRunHtmlSimulationTask(Project project, TaskProvider<PrepareSimulationTask> prepareSimulationTask) {
         try {
             project.getTasks().named(Const.Tasks.RUN_HTML_SIMULATION_TASK_NAME, RunHtmlSimulationTask.class);
             return;
         } catch (UnknownTaskException ignored) {}
+        TaskProvider<PreparePlatformSimulationTask> preparePlatformTask = addPreparePlatformSimulationTask(project, RunnerConfiguration.RunnerType.Html, prepareSimulationTask);
+        Provider<RunnerConnectionService> runnerConnections = addRunnerConnectionService(project);
         TaskProvider<RunHtmlSimulationTask> task = registerTaskInProject(Const.Tasks.RUN_HTML_SIMULATION_TASK_NAME, RunHtmlSimulationTask.class, Const.Tasks.RUN_HTML_SIMULATION_TASK_DESCRIPTION, project);
-        task.configure(runSimulationTask -> runSimulationTask.dependsOn(prepareSimulationTask));
+        task.configure(runSimulationTask -> {
+            runSimulationTask.dependsOn(preparePlatformTask);
+            runSimulationTask.getRunnerConnections().set(runnerConnections);
+            runSimulationTask.usesService(runnerConnections);
+        });
     }
 
     /**
      * Register OIS-run-desktop-simulation task to the project if not already registered.
      * Prepare the environment required for the OIS simulation actions
      * @param project - the project to register the task to
-     * @param prepareSimulationTask- the required task before this
+     * @param prepareSimulationTask- the shared preparation task, the task depends only on the prepare task of its platform
      */
     public static void addRunDesktopSimulationTask(Project project, TaskProvider<PrepareSimulationTask> prepareSimulationTask) {
         try {
             project.getTasks().named(Const.Tasks.RUN_DESKTOP_SIMULATION_TASK_NAME, RunDesktopSimulationTask.class);
             return;
         } catch (UnknownTaskException ignored) {}
+        TaskProvider<PreparePlatformSimulationTask> preparePlatformTask = addPreparePlatformSimulationTask(project, RunnerConfiguration.RunnerType.Desktop, prepareSimulationTask);
+        Provider<RunnerConnectionService> runnerConnections = addRunnerConnectionService(project);
         TaskProvider<RunDesktopSimulationTask> task = registerTaskInProject(Const.Tasks.RUN_DESKTOP_SIMULATION_TASK_NAME, RunDesktopSimulationTask.class, Const.Tasks.RUN_DESKTOP_SIMULATION_TASK_DESCRIPTION, project);
-        task.configure(runSimulationTask -> runSimulationTask.dependsOn(prepareSimulationTask));
+        task.configure(runSimulationTask -> {
+            runSimulationTask.dependsOn(preparePlatformTask);
+            runSimulationTask.getRunnerConnections().set(runnerConnections);
+            runSimulationTask.usesService(runnerConnections);
+        });
     }
 
     /**
      * Register OIS-run-android-simulation task to the project if not already registered.
      * Prepare the environment required for the OIS simulation actions
      * @param project - the project to register the task to
-     * @param prepareSimulationTask- the required task before this
+     * @param prepareSimulationTask- the shared preparation task, the task depends only on the prepare task of its platform
      */
     public static void addRunAndroidSimulationTask(Project project, TaskProvider<PrepareSimulationTask> prepareSimulationTask) {
         try {
             project.getTasks().named(Const.Tasks.RUN_ANDROID_SIMULATION_TASK_NAME, RunAndroidSimulationTask.class);
             return;
         } catch (UnknownTaskException ignored) {}
+        TaskProvider<PreparePlatformSimulationTask> preparePlatformTask = addPreparePlatformSimulationTask(project, RunnerConfiguration.RunnerType.Android, prepareSimulationTask);
+        Provider<RunnerConnectionService> runnerConnections = addRunnerConnectionService(project);
         TaskProvider<RunAndroidSimulationTask> task = registerTaskInProject(Const.Tasks.RUN_ANDROID_SIMULATION_TASK_NAME, RunAndroidSimulationTask.class, Const.Tasks.RUN_ANDROID_SIMULATION_TASK_DESCRIPTION, project);
-        task.configure(runSimulationTask -> runSimulationTask.dependsOn(prepareSimulationTask));
+        task.configure(runSimulationTask -> {
+            runSimulationTask.dependsOn(preparePlatformTask);
+            runSimulationTask.getRunnerConnections().set(runnerConnections);
+            runSimulationTask.usesService(runnerConnections);
+        });
+    }
+
+    /**
+     * Register Export-Simulation task of a given platform to the project if not already registered.
+     * Generate the production artifacts of the platform, the task is skipped if the platform is not configured in the simulation manifest.
+     * @param project - the project to register the task to
+     * @param platform - the platform to export
+     * @param taskName - the name of the task
+     * @param taskDescription - the description of the task
+     * @param prepareSimulationTask - the shared preparation task, the task depends only on the prepare task of its platform
+     * @return the task provider of the task
+     */
+    public static TaskProvider<ExportSimulationTask> addExportSimulationTask(Project project, RunnerConfiguration.RunnerType platform, String taskName, String taskDescription, TaskProvider<PrepareSimulationTask> prepareSimulationTask) {
+        try {
+            return project.getTasks().named(taskName, ExportSimulationTask.class);
+        } catch (UnknownTaskException ignored) {}
+        Provider<RunnerConnectionService> runnerConnections = addRunnerConnectionService(project);
+        TaskProvider<ExportSimulationTask> task = registerTaskInProject(taskName, ExportSimulationTask.class, taskDescription, project);
+        task.configure(exportTask -> {
+            exportTask.getPlatform().set(platform);
+            exportTask.getRunnerConnections().set(runnerConnections);
+            exportTask.usesService(runnerConnections);
+            exportTask.dependsOn(addPreparePlatformSimulationTask(project, platform, prepareSimulationTask));
+            exportTask.onlyIf(ignored -> isPlatformConfigured(project, platform));
+        });
+        return task;
+    }
+
+    private static boolean isPlatformConfigured(Project project, RunnerConfiguration.RunnerType platform) {
+        try {
+            return SimulationUtils.getSimulationManifest(project).getPlatforms().contains(platform);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read the prepared simulation manifest", e);
+        }
     }
 
     /**
      * Register Distribute-Simulation task to the project if not already registered.
      * Generate the production artifacts for each configured platforms, ready to distribute.
      * @param project - the project to register the task to
-     * @param prepareSimulationTask - the required task before this
+     * @param exportTasks - the export task of each platform
      */
-    public static void addDistributeSimulationTask(Project project, TaskProvider<PrepareSimulationTask> prepareSimulationTask) {
+    public static void addDistributeSimulationTask(Project project, List<TaskProvider<ExportSimulationTask>> exportTasks) {
         try {
             project.getTasks().named(Const.Tasks.DISTRIBUTE_SIMULATION_TASK_NAME, DistributeSimulationTask.class);
             return;
         } catch (UnknownTaskException ignored) {}
         TaskProvider<DistributeSimulationTask> task = registerTaskInProject(Const.Tasks.DISTRIBUTE_SIMULATION_TASK_NAME, DistributeSimulationTask.class, Const.Tasks.DISTRIBUTE_SIMULATION_TASK_DESCRIPTION, project);
-        task.configure(distributeTask -> distributeTask.dependsOn(prepareSimulationTask));
+        task.configure(distributeTask -> distributeTask.dependsOn(exportTasks));
     }
 
     /**
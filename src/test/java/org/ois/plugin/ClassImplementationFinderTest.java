@@ -0,0 +1,220 @@
+package org.ois.plugin;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.ois.core.utils.io.FileUtils;
+import org.ois.plugin.tools.ClassHeader;
+import org.ois.plugin.tools.ClassImplementationFinder;
+import org.ois.plugin.tools.ProjectClassesIndex;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertTrue;
+
+public class ClassImplementationFinderTest {
+    private static final String STATE_INTERFACE = "org.ois.core.state.IState";
+    private static final String COMPONENT_INTERFACE = "org.ois.core.components.IComponent";
+
+    private Path testDir;
+    private Path buildDir;
+    private Path libJar;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        testDir = Files.createTempDirectory("finderTest");
+        buildDir = testDir.resolve("build");
+        // Dependency jar: the OIS interfaces and a library base state
+        libJar = testDir.resolve("lib.jar");
+        writeJar(libJar, Map.of(
+                STATE_INTERFACE, generateClass(STATE_INTERFACE, null, 0, true),
+                COMPONENT_INTERFACE, generateClass(COMPONENT_INTERFACE, null, 0, true),
+                "org.lib.BaseState", generateClass("org.lib.BaseState", "java.lang.Object", 0, false, STATE_INTERFACE),
+                "org.lib.LibState", generateClass("org.lib.LibState", "org.lib.BaseState", 0, false)
+        ));
+        // Project classes
+        Path classesDir = buildDir.resolve("classes").resolve("java").resolve("main");
+        writeClassFile(classesDir, generateClass("org.example.RedState", "org.lib.BaseState", 0, false));
+        writeClassFile(classesDir, generateClass("org.example.BlueState", "org.example.RedState", 0, false));
+        writeClassFile(classesDir, generateClass("org.example.Shape", "java.lang.Object", 0, false, COMPONENT_INTERFACE));
+        writeClassFile(classesDir, generateClass("org.example.Util", "java.lang.Object", 0, false));
+        writeClassFile(buildDir.resolve("classes").resolve("kotlin").resolve("main"), generateClass("org.example.GreenState", "org.example.RedState", 0, false));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        assertTrue(FileUtils.deleteDirectoryContent(testDir));
+        assertTrue(testDir.toFile().delete());
+    }
+
+    @DataProvider(name = "scanModeProvider")
+    public Object[][] scanModeProvider() {
+        return new Object[][]{{true}, {false}};
+    }
+
+    @Test(dataProvider = "scanModeProvider")
+    public void testFindAllTargets(boolean lazyScan) {
+        Map<String, Set<String>> implementations = ClassImplementationFinder.findAll(buildDir, List.of(libJar.toFile()), null, Set.of(STATE_INTERFACE, COMPONENT_INTERFACE), 2, lazyScan);
+
+        // Only project classes (from all the project languages) are returned, including indirect implementations through dependency classes
+        Assert.assertEquals(implementations.get(STATE_INTERFACE), Set.of("org.example.RedState", "org.example.BlueState", "org.example.GreenState"));
+        Assert.assertEquals(implementations.get(COMPONENT_INTERFACE), Set.of("org.example.Shape"));
+    }
+
+    @Test(dataProvider = "scanModeProvider")
+    public void testUnchangedJarLoadedFromIndex(boolean lazyScan) throws IOException {
+        Path indexFile = testDir.resolve("cache").resolve("classpath.index");
+        Assert.assertEquals(ClassImplementationFinder.findAll(buildDir, List.of(libJar.toFile()), indexFile, Set.of(STATE_INTERFACE), 2, lazyScan).get(STATE_INTERFACE), Set.of("org.example.RedState", "org.example.BlueState", "org.example.GreenState"));
+        assertTrue(indexFile.toFile().exists());
+
+        // Corrupt the jar content while keeping its size and modified time, an indexed jar must not be opened again
+        FileTime lastModified = Files.getLastModifiedTime(libJar);
+        Files.write(libJar, new byte[(int) Files.size(libJar)]);
+        Files.setLastModifiedTime(libJar, lastModified);
+
+        Assert.assertEquals(ClassImplementationFinder.findAll(buildDir, List.of(libJar.toFile()), indexFile, Set.of(STATE_INTERFACE), 2, lazyScan).get(STATE_INTERFACE), Set.of("org.example.RedState", "org.example.BlueState", "org.example.GreenState"));
+    }
+
+    @Test
+    public void testLazyScanSkipsUnrelatedClasses() throws IOException {
+        // A jar with invalid class files, in a package that is not in the project classes hierarchy
+        Path unrelatedJar = testDir.resolve("unrelated.jar");
+        writeJar(unrelatedJar, Map.of("com.other.Unrelated", new byte[]{1, 2, 3}));
+
+        Map<String, Set<String>> implementations = ClassImplementationFinder.findAll(buildDir, List.of(unrelatedJar.toFile(), libJar.toFile()), null, Set.of(STATE_INTERFACE), 2, true);
+
+        Assert.assertEquals(implementations.get(STATE_INTERFACE), Set.of("org.example.RedState", "org.example.BlueState", "org.example.GreenState"));
+    }
+
+    @Test
+    public void testDeepHierarchy() throws IOException {
+        // A long chain of dependency classes that ends with a state implementation
+        Map<String, byte[]> chain = new HashMap<>();
+        chain.put("org.lib.deep.Base0", generateClass("org.lib.deep.Base0", "java.lang.Object", 0, false, STATE_INTERFACE));
+        for (int i = 1; i < 20000; i++) {
+            chain.put("org.lib.deep.Base" + i, generateClass("org.lib.deep.Base" + i, "org.lib.deep.Base" + (i - 1), 0, false));
+        }
+        Path deepJar = testDir.resolve("deep.jar");
+        writeJar(deepJar, chain);
+        writeClassFile(buildDir.resolve("classes").resolve("java").resolve("main"), generateClass("org.example.DeepState", "org.lib.deep.Base19999", 0, false));
+
+        Set<String> implementations = ClassImplementationFinder.find(buildDir, List.of(libJar.toFile(), deepJar.toFile()), STATE_INTERFACE);
+
+        Assert.assertEquals(implementations, Set.of("org.example.RedState", "org.example.BlueState", "org.example.GreenState", "org.example.DeepState"));
+    }
+
+    @Test(dataProvider = "scanModeProvider")
+    public void testLargeClassFiles(boolean lazyScan) throws IOException {
+        // Classes bigger than the initial read buffer and the memory mapping threshold
+        Path largeJar = testDir.resolve("large.jar");
+        writeJar(largeJar, Map.of("org.lib.large.LargeState", generateClass("org.lib.large.LargeState", "java.lang.Object", 5000, false, STATE_INTERFACE)));
+        writeClassFile(buildDir.resolve("classes").resolve("java").resolve("main"), generateClass("org.example.LargeState", "org.lib.large.LargeState", 5000, false));
+
+        Map<String, Set<String>> implementations = ClassImplementationFinder.findAll(buildDir, List.of(libJar.toFile(), largeJar.toFile()), null, Set.of(STATE_INTERFACE), 2, lazyScan);
+
+        Assert.assertEquals(implementations.get(STATE_INTERFACE), Set.of("org.example.RedState", "org.example.BlueState", "org.example.GreenState", "org.example.LargeState"));
+    }
+
+    @Test
+    public void testProjectClassesIndexChanges() throws IOException {
+        Path classesDir = buildDir.resolve("classes").resolve("java").resolve("main");
+        Path indexFile = testDir.resolve("cache").resolve("classes.index");
+        ProjectClassesIndex classesIndex = ProjectClassesIndex.empty(indexFile);
+        for (File classesRoot : ClassImplementationFinder.getProjectClassesDirectories(buildDir)) {
+            try (Stream<Path> classFiles = Files.walk(classesRoot.toPath())) {
+                for (Path classFile : classFiles.filter(Files::isRegularFile).toList()) {
+                    classesIndex.put(classFile.toFile());
+                }
+            }
+        }
+        classesIndex.save();
+
+        // Next build: RedState no longer a state and Shape removed, only the changed class files are read
+        writeClassFile(classesDir, generateClass("org.example.RedState", "java.lang.Object", 0, false));
+        File shapeClassFile = classesDir.resolve("org/example/Shape.class").toFile();
+        assertTrue(shapeClassFile.delete());
+        classesIndex = ProjectClassesIndex.load(indexFile);
+        classesIndex.put(classesDir.resolve("org/example/RedState.class").toFile());
+        classesIndex.remove(shapeClassFile);
+
+        Map<String, Set<String>> implementations = ClassImplementationFinder.findAll(classesIndex.getClasses(), List.of(libJar.toFile()), null, Set.of(STATE_INTERFACE, COMPONENT_INTERFACE), 2, true);
+
+        // Classes that no longer implement the targets are dropped, including the unchanged sub classes
+        Assert.assertEquals(implementations.get(STATE_INTERFACE), Set.of());
+        Assert.assertEquals(implementations.get(COMPONENT_INTERFACE), Set.of());
+    }
+
+    @Test
+    public void testHeaderParsing() {
+        byte[] classFile = generateClass("org.example.generated.Generated", "org.example.Shape", 20, false, COMPONENT_INTERFACE, STATE_INTERFACE);
+
+        ClassHeader header = ClassHeader.read(classFile);
+        Assert.assertEquals(header.name, "org.example.generated.Generated");
+        Assert.assertEquals(header.superName, "org.example.Shape");
+        Assert.assertEquals(header.interfaces, new String[]{COMPONENT_INTERFACE, STATE_INTERFACE});
+
+        // Only the hierarchy is kept, nothing from the fields, methods or bytecode of the class (compared by ClassHeaderReadBenchmark)
+        Set<String> instanceFields = Arrays.stream(ClassHeader.class.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+        Assert.assertEquals(instanceFields, Set.of("name", "superName", "interfaces"));
+    }
+
+    private static byte[] generateClass(String name, String superName, int methodCount, boolean isInterface, String... interfaces) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        int access = isInterface ? Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT : Opcodes.ACC_PUBLIC;
+        String[] internalInterfaces = Arrays.stream(interfaces).map(ClassImplementationFinderTest::toInternalName).toArray(String[]::new);
+        writer.visit(Opcodes.V11, access, toInternalName(name), null, superName == null ? "java/lang/Object" : toInternalName(superName), internalInterfaces);
+        for (int i = 0; i < methodCount; i++) {
+            MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, "(I)I", null, null);
+            method.visitCode();
+            method.visitVarInsn(Opcodes.ILOAD, 1);
+            method.visitLdcInsn(i);
+            method.visitInsn(Opcodes.IADD);
+            method.visitInsn(Opcodes.IRETURN);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static String toInternalName(String name) {
+        return name.replace('.', '/');
+    }
+
+    private static void writeClassFile(Path classesDir, byte[] classFile) throws IOException {
+        Path classPath = classesDir.resolve(new ClassReader(classFile).getClassName() + ".class");
+        Files.createDirectories(classPath.getParent());
+        Files.write(classPath, classFile);
+    }
+
+    private static void writeJar(Path jarPath, Map<String, byte[]> classes) throws IOException {
+        try (OutputStream out = Files.newOutputStream(jarPath); JarOutputStream jar = new JarOutputStream(out)) {
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                jar.putNextEntry(new JarEntry(toInternalName(entry.getKey()) + ".class"));
+                jar.write(entry.getValue());
+                jar.closeEntry();
+            }
+        }
+    }
+}
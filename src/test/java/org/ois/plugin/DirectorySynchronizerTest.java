@@ -0,0 +1,194 @@
+package org.ois.plugin;
+
+import org.ois.core.utils.io.FileUtils;
+import org.ois.plugin.tools.DirectorySynchronizer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.testng.Assert.assertTrue;
+
+public class DirectorySynchronizerTest {
+    private Path testDir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        testDir = Files.createTempDirectory("directorySynchronizerTest");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        assertTrue(FileUtils.deleteDirectoryContent(testDir));
+        assertTrue(testDir.toFile().delete());
+    }
+
+    private static void assertResult(DirectorySynchronizer.Result result, int copied, int deleted, int unchanged) {
+        Assert.assertEquals(result.copied, copied, "copied");
+        Assert.assertEquals(result.deleted, deleted, "deleted");
+        Assert.assertEquals(result.unchanged, unchanged, "unchanged");
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+
+    @Test
+    public void testSync() throws IOException {
+        Path assets = testDir.resolve("simulation").resolve("assets");
+        Path resources = testDir.resolve("src").resolve("main").resolve("resources");
+        Path target = testDir.resolve("build").resolve("assets");
+        write(assets.resolve("textures").resolve("player.png"), "player");
+        write(assets.resolve("audio").resolve("theme.ogg"), "theme");
+        write(assets.resolve("config.json"), "{ \"from\": \"assets\" }");
+        write(resources.resolve("config.json"), "{ \"from\": \"resources\" }");
+        DirectorySynchronizer synchronizer = new DirectorySynchronizer(target, testDir.resolve("cache").resolve("assets.manifest"));
+        List<Path> sources = List.of(assets, resources);
+
+        // First sync, the file from the last source takes precedence
+        Assert.assertFalse(synchronizer.isSynchronized());
+        assertResult(synchronizer.sync(sources), 3, 0, 0);
+        assertTrue(synchronizer.isSynchronized());
+        Assert.assertEquals(Files.readString(target.resolve("textures").resolve("player.png")), "player");
+        Assert.assertEquals(Files.readString(target.resolve("config.json")), "{ \"from\": \"resources\" }");
+        FileTime copyTime = Files.getLastModifiedTime(target.resolve("audio").resolve("theme.ogg"));
+        write(target.resolve("reflection.ois"), "not synchronized");
+
+        // Nothing changed
+        assertResult(synchronizer.sync(sources), 0, 0, 3);
+
+        // Touched with the same content, compared by content and not copied
+        Files.setLastModifiedTime(assets.resolve("audio").resolve("theme.ogg"), FileTime.fromMillis(1000));
+        assertResult(synchronizer.sync(sources), 0, 0, 3);
+        Assert.assertEquals(Files.getLastModifiedTime(target.resolve("audio").resolve("theme.ogg")), copyTime);
+
+        // Changed content with the same size
+        write(assets.resolve("textures").resolve("player.png"), "PLAYER");
+        assertResult(synchronizer.sync(sources), 1, 0, 2);
+        Assert.assertEquals(Files.readString(target.resolve("textures").resolve("player.png")), "PLAYER");
+
+        // Removed source file, removed from the target with its empty directory
+        Files.delete(assets.resolve("audio").resolve("theme.ogg"));
+        assertResult(synchronizer.sync(sources), 0, 1, 2);
+        Assert.assertFalse(Files.exists(target.resolve("audio")));
+
+        // Target file changed outside the sync
+        write(target.resolve("config.json"), "changed");
+        assertResult(synchronizer.sync(sources), 1, 0, 1);
+        Assert.assertEquals(Files.readString(target.resolve("config.json")), "{ \"from\": \"resources\" }");
+
+        // Files that were not synchronized are not touched
+        Assert.assertEquals(Files.readString(target.resolve("reflection.ois")), "not synchronized");
+
+        // Synchronized file removed from the target
+        Files.delete(target.resolve("config.json"));
+        Assert.assertFalse(synchronizer.isSynchronized());
+        assertResult(synchronizer.sync(sources), 1, 0, 1);
+        assertTrue(synchronizer.isSynchronized());
+    }
+
+    @Test
+    public void testLinkStaging() throws IOException {
+        Path assets = testDir.resolve("simulation").resolve("assets");
+        Path target = testDir.resolve("build").resolve("assets");
+        Path manifest = testDir.resolve("cache").resolve("assets.manifest");
+        Path texture = write(assets.resolve("textures").resolve("player.png"), "player");
+        write(assets.resolve("theme.ogg"), "theme");
+        List<Path> sources = List.of(assets);
+
+        // Staged as links to the sources
+        DirectorySynchronizer.Result result = new DirectorySynchronizer(target, manifest, DirectorySynchronizer.StagingMode.Link).sync(sources);
+        Assert.assertEquals(result.linked, 2);
+        assertTrue(Files.isSameFile(texture, target.resolve("textures").resolve("player.png")));
+        assertResult(new DirectorySynchronizer(target, manifest, DirectorySynchronizer.StagingMode.Link).sync(sources), 0, 0, 2);
+
+        // Changing to copy breaks the links
+        assertResult(new DirectorySynchronizer(target, manifest).sync(sources), 2, 0, 0);
+        Assert.assertFalse(Files.isSameFile(texture, target.resolve("textures").resolve("player.png")));
+        Assert.assertEquals(Files.readString(target.resolve("textures").resolve("player.png")), "player");
+        assertResult(new DirectorySynchronizer(target, manifest).sync(sources), 0, 0, 2);
+    }
+
+    @Test
+    public void testConcurrentCopy() throws IOException {
+        Path assets = testDir.resolve("simulation").resolve("assets");
+        Path target = testDir.resolve("build").resolve("assets");
+        byte[] largeContent = new byte[2 * 1024 * 1024];
+        new Random(7).nextBytes(largeContent);
+        for (int i = 0; i < 200; i++) {
+            write(assets.resolve("dir" + (i % 10)).resolve("small" + i + ".txt"), "small file " + i);
+        }
+        for (int i = 0; i < 4; i++) {
+            Files.write(assets.resolve("large" + i + ".bin"), largeContent);
+        }
+        DirectorySynchronizer synchronizer = new DirectorySynchronizer(target, testDir.resolve("assets.manifest"), DirectorySynchronizer.StagingMode.Copy, 4);
+
+        assertResult(synchronizer.sync(List.of(assets)), 204, 0, 0);
+        for (int i = 0; i < 200; i++) {
+            Assert.assertEquals(Files.readString(target.resolve("dir" + (i % 10)).resolve("small" + i + ".txt")), "small file " + i);
+        }
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(Files.mismatch(assets.resolve("large" + i + ".bin"), target.resolve("large" + i + ".bin")), -1L);
+        }
+        assertResult(synchronizer.sync(List.of(assets)), 0, 0, 204);
+    }
+
+    @Test
+    public void testExcludedDirectories() throws IOException {
+        Path runner = testDir.resolve("ois-runners");
+        Path target = testDir.resolve("build").resolve("runners").resolve("custom");
+        write(runner.resolve("desktop-runner").resolve("build.gradle"), "desktop");
+        write(runner.resolve("desktop-runner").resolve("build").resolve("libs").resolve("desktop.jar"), "runner output");
+        write(runner.resolve(".git").resolve("HEAD"), "ref: refs/heads/main");
+        write(target.resolve("desktop-runner").resolve("build").resolve("classes").resolve("Main.class"), "working directory output");
+        DirectorySynchronizer synchronizer = new DirectorySynchronizer(target, testDir.resolve("runner-custom.manifest"));
+        Set<String> excluded = Set.of(".git", "build");
+
+        assertResult(synchronizer.sync(List.of(runner), excluded), 1, 0, 0);
+        Assert.assertFalse(Files.exists(target.resolve(".git")));
+        Assert.assertFalse(Files.exists(target.resolve("desktop-runner").resolve("build").resolve("libs")));
+        assertResult(synchronizer.sync(List.of(runner), excluded), 0, 0, 1);
+
+        // Removed runner file, the outputs of the runner build in the target are kept
+        Files.delete(runner.resolve("desktop-runner").resolve("build.gradle"));
+        assertResult(synchronizer.sync(List.of(runner), excluded), 0, 1, 0);
+        Assert.assertEquals(Files.readString(target.resolve("desktop-runner").resolve("build").resolve("classes").resolve("Main.class")), "working directory output");
+    }
+
+    @Test
+    public void testFirstSyncRemovesUnknownFiles() throws IOException {
+        Path source = testDir.resolve("assets");
+        Path target = testDir.resolve("build").resolve("assets");
+        write(source.resolve("image.png"), "image");
+        // Staged before the target was synchronized with a manifest
+        write(target.resolve("image.png"), "old image");
+        write(target.resolve("removed").resolve("sound.wav"), "removed sound");
+        write(target.resolve("build").resolve("output.txt"), "excluded output");
+        Path manifest = testDir.resolve("assets.manifest");
+        DirectorySynchronizer synchronizer = new DirectorySynchronizer(target, manifest);
+
+        assertResult(synchronizer.sync(List.of(source), Set.of("build")), 1, 1, 0);
+        Assert.assertEquals(Files.readString(target.resolve("image.png")), "image");
+        Assert.assertFalse(Files.exists(target.resolve("removed")));
+        Assert.assertEquals(Files.readString(target.resolve("build").resolve("output.txt")), "excluded output");
+
+        // With a manifest, files that were not synchronized are not touched
+        write(target.resolve("generated.txt"), "generated");
+        assertResult(synchronizer.sync(List.of(source), Set.of("build")), 0, 0, 1);
+        Assert.assertTrue(Files.exists(target.resolve("generated.txt")));
+
+        // Without the manifest (i.e. cleaned caches) the target is pruned again
+        Files.delete(manifest);
+        assertResult(synchronizer.sync(List.of(source), Set.of("build")), 0, 1, 1);
+        Assert.assertFalse(Files.exists(target.resolve("generated.txt")));
+    }
+}
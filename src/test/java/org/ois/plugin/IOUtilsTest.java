@@ -0,0 +1,46 @@
+package org.ois.plugin;
+
+import org.ois.core.utils.io.FileUtils;
+import org.ois.plugin.utils.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.testng.Assert.assertTrue;
+
+public class IOUtilsTest {
+    private Path testDir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        testDir = Files.createTempDirectory("ioUtilsTest");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        assertTrue(FileUtils.deleteDirectoryContent(testDir));
+        assertTrue(testDir.toFile().delete());
+    }
+
+    @Test
+    public void testWriteIfChanged() throws IOException {
+        Path file = testDir.resolve("SimulationConfig.java");
+        assertTrue(IOUtils.writeIfChanged(file, "public static final String TITLE = \"OIS\";"));
+        FileTime writeTime = FileTime.fromMillis(1000);
+        Files.setLastModifiedTime(file, writeTime);
+
+        // Same content, the file is not touched
+        Assert.assertFalse(IOUtils.writeIfChanged(file, "public static final String TITLE = \"OIS\";"));
+        Assert.assertEquals(Files.getLastModifiedTime(file), writeTime);
+
+        // Same size, different content
+        assertTrue(IOUtils.writeIfChanged(file, "public static final String TITLE = \"SIO\";"));
+        Assert.assertEquals(Files.readString(file), "public static final String TITLE = \"SIO\";");
+    }
+}
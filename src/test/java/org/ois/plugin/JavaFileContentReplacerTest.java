@@ -12,6 +12,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static org.testng.Assert.assertTrue;
 
@@ -75,6 +76,57 @@ public class JavaFileContentReplacerTest {
         FileContentReplacer.Java.replaceJavaStaticFinalVals(originalContent, attributeMap); // Should throw exception
     }
 
+    @Test
+    public void testCompiledReplacerReuse() {
+        FileContentReplacer.CompiledReplacer replacer = FileContentReplacer.Java.compile(Set.of("TITLE", "DEBUG_MODE"));
+        String originalContent = """
+                public class SimulationConfig {
+                    public static final String TITLE = "OIS";
+                    public static final boolean DEBUG_MODE = false;
+                }
+                """;
+
+        // Values are inserted as is, without regex replacement escaping
+        Assert.assertEquals(replacer.replace(originalContent, Map.of("TITLE", "Price $1 \\ Off", "DEBUG_MODE", true)), """
+                public class SimulationConfig {
+                    public static final String TITLE = "Price $1 \\ Off";
+                    public static final boolean DEBUG_MODE = true;
+                }
+                """);
+        Assert.assertEquals(replacer.replace(originalContent, Map.of("TITLE", "Other", "DEBUG_MODE", false)), """
+                public class SimulationConfig {
+                    public static final String TITLE = "Other";
+                    public static final boolean DEBUG_MODE = false;
+                }
+                """);
+    }
+
+    @Test
+    public void testReplaceXmlAttributes() {
+        String originalContent = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <resources>
+                    <string name="app_name">OIS</string>
+                    <string name="other">Other</string>
+                    <application android:icon="@drawable/old_icon"/>
+                </resources>
+                """;
+
+        String actualContent = FileContentReplacer.Xml.replaceXmlAttributes(originalContent, new HashMap<>(Map.of(
+                "app_name", "My Simulation",
+                "android:icon", "@drawable/ic_launcher"
+        )));
+
+        Assert.assertEquals(actualContent, """
+                <?xml version="1.0" encoding="utf-8"?>
+                <resources>
+                    <string name="app_name">My Simulation</string>
+                    <string name="other">Other</string>
+                    <application android:icon="@drawable/ic_launcher"/>
+                </resources>
+                """);
+    }
+
     @DataProvider(name = "updateConfigProvider")
     public Object[][] updateConfigProvider() {
         return new Object[][]{
@@ -0,0 +1,129 @@
+package org.ois.plugin;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.BundleWriter;
+import org.ois.core.utils.io.FileUtils;
+import org.ois.plugin.tools.RunnerStore;
+import org.ois.plugin.utils.GitUtils;
+import org.ois.plugin.utils.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.testng.Assert.assertTrue;
+
+public class RunnerStoreTest {
+    private Path testDir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        testDir = Files.createTempDirectory("runnerStoreTest");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        assertTrue(FileUtils.deleteDirectoryContent(testDir));
+        assertTrue(testDir.toFile().delete());
+    }
+
+    private Path createRunnersRepository() throws IOException, GitAPIException {
+        Path repository = testDir.resolve("ois-runners");
+        try (Git git = Git.init().setDirectory(repository.toFile()).setInitialBranch("main").call()) {
+            Files.createDirectories(repository.resolve("desktop-runner"));
+            Files.writeString(repository.resolve("desktop-runner").resolve("build.gradle"), "v1");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("v1").setSign(false).call();
+            git.tag().setName("1.0").call();
+            Files.writeString(repository.resolve("desktop-runner").resolve("build.gradle"), "v2");
+            git.commit().setAll(true).setMessage("v2").setSign(false).call();
+        }
+        return repository;
+    }
+
+    @Test
+    public void testProvideFromBundle() throws IOException, GitAPIException {
+        Path repository = createRunnersRepository();
+        Path bundle = testDir.resolve("ois-runners.bundle");
+        try (Git git = Git.open(repository.toFile()); OutputStream out = Files.newOutputStream(bundle)) {
+            Repository repo = git.getRepository();
+            BundleWriter writer = new BundleWriter(repo);
+            writer.include(repo.exactRef("refs/heads/main"));
+            writer.include(repo.exactRef("refs/tags/1.0"));
+            writer.writeBundle(NullProgressMonitor.INSTANCE, out);
+        }
+        String bundleURL = bundle.toUri().toString();
+        RunnerStore store = new RunnerStore(testDir.resolve("store"));
+
+        // Tip of a branch
+        String mainCommit = GitUtils.resolveCommit(bundleURL, "main");
+        Path mainRunner = store.provide(bundleURL, "main", mainCommit);
+        Assert.assertEquals(Files.readString(mainRunner.resolve("desktop-runner").resolve("build.gradle")), "v2");
+
+        // By commit id, the bundle does not advertise a HEAD
+        String tagCommit = GitUtils.resolveCommit(bundleURL, "1.0");
+        Path tagRunner = store.provide(bundleURL, tagCommit, tagCommit);
+        Assert.assertEquals(Files.readString(tagRunner.resolve("desktop-runner").resolve("build.gradle")), "v1");
+        Assert.assertEquals(store.provide("file:///not/used", "main", mainCommit), mainRunner);
+    }
+
+    @Test
+    public void testProvideFromMirror() throws IOException, GitAPIException {
+        String mirrorURL = createRunnersRepository().toUri().toString();
+        RunnerStore store = new RunnerStore(testDir.resolve("store"));
+
+        Path runner = store.provide(mirrorURL, "1.0", GitUtils.resolveCommit(mirrorURL, "1.0"));
+        Assert.assertEquals(Files.readString(runner.resolve("desktop-runner").resolve("build.gradle")), "v1");
+        // Only the commit was fetched
+        assertTrue(Files.exists(runner.resolve(".git").resolve("shallow")));
+    }
+
+    @Test
+    public void testProvideArchive() throws IOException {
+        Path archive = testDir.resolve("ois-runners.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(archive))) {
+            out.putNextEntry(new ZipEntry("ois-runners-1.0/desktop-runner/build.gradle"));
+            out.write("v1".getBytes());
+            out.closeEntry();
+        }
+        String sha256 = IOUtils.sha256(archive);
+        RunnerStore store = new RunnerStore(testDir.resolve("store"));
+
+        // Integrity check failure, nothing is stored
+        Assert.expectThrows(IOException.class, () -> store.provideArchive(archive, "sha256-" + "0".repeat(64), "0".repeat(64)));
+        Assert.assertFalse(Files.exists(store.getRunnerDirectory("sha256-" + "0".repeat(64))));
+
+        // Stored without the archive root directory
+        Path runner = store.provideArchive(archive, "sha256-" + sha256, sha256);
+        Assert.assertEquals(Files.readString(runner.resolve("desktop-runner").resolve("build.gradle")), "v1");
+    }
+
+    @Test
+    public void testModifiedRunnerIsStoredAgain() throws IOException, GitAPIException {
+        String mirrorURL = createRunnersRepository().toUri().toString();
+        RunnerStore store = new RunnerStore(testDir.resolve("store"));
+        String commit = GitUtils.resolveCommit(mirrorURL, "1.0");
+        Path runner = store.provide(mirrorURL, "1.0", commit);
+
+        // Written in place through a working copy that links to the stored file
+        Path workingCopyFile = testDir.resolve("working-copy").resolve("build.gradle");
+        Files.createDirectories(workingCopyFile.getParent());
+        Files.createLink(workingCopyFile, runner.resolve("desktop-runner").resolve("build.gradle"));
+        Files.writeString(workingCopyFile, "modified");
+
+        Assert.assertEquals(store.provide(mirrorURL, "1.0", commit), runner);
+        Assert.assertEquals(Files.readString(runner.resolve("desktop-runner").resolve("build.gradle")), "v1");
+        // The working copy keeps its own file
+        Assert.assertEquals(Files.readString(workingCopyFile), "modified");
+    }
+}